@@ -0,0 +1,55 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.config.security.JwtKeyRing;
+import com.vijay.User_Master.config.security.JwtTokenProvider;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput per signing algorithm of the key ring.
+ *
+ * verify runs with the verified-token cache disabled, so every call checks the signature.
+ * EdDSA (Ed25519) is not listed: jjwt 0.11 has no support for it.
+ *
+ * Run with: ./gradlew jmh -PjmhIncludes=JwtSigningBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSigningBenchmark {
+
+    private static final long ONE_DAY = 86_400_000L;
+
+    @Param({"HS256", "ES256", "ES384", "RS256", "PS256"})
+    public String algorithm;
+
+    private JwtTokenProvider provider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing.KeyEntry key = JwtKeyRing.generate("bench", SignatureAlgorithm.forName(algorithm));
+        provider = new JwtTokenProvider(new JwtKeyRing(List.of(key), "bench", "bench"), ONE_DAY, 10_000, 0);
+        authentication = new UsernamePasswordAuthenticationToken("bench-user", null, List.of());
+        token = provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String sign() {
+        return provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String verify() {
+        return provider.parseAndValidate(token).getSubject();
+    }
+}
@@ -0,0 +1,74 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.config.security.JwtKeyRing;
+import com.vijay.User_Master.config.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token verification cost per request.
+ *
+ * legacyValidateThenGetUsername: the old filter path, a fresh key and parser for validateToken
+ * and again for getUsername.
+ * parseAndValidateUncached: one parse with the parser built at startup (cache disabled).
+ * parseAndValidateCached: the steady state, the same token seen again within its lifetime.
+ *
+ * Run with: ./gradlew jmh -PjmhIncludes=JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "daf66e01593f61a15b857cf433aae03a005812b31234e149036bcc8dee755dbb";
+    private static final long ONE_DAY = 86_400_000L;
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(List.of(JwtKeyRing.hmac("default", SECRET)), "default", "default");
+        cachedProvider = new JwtTokenProvider(keyRing, ONE_DAY, 10_000, 300);
+        uncachedProvider = new JwtTokenProvider(keyRing, ONE_DAY, 10_000, 0);
+        token = cachedProvider.generateToken(
+                new UsernamePasswordAuthenticationToken("bench-user", null, List.of()));
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetUsername() {
+        Jwts.parserBuilder().setSigningKey(legacyKey()).build().parse(token);
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(legacyKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String parseAndValidateUncached() {
+        return uncachedProvider.parseAndValidate(token).getSubject();
+    }
+
+    @Benchmark
+    public String parseAndValidateCached() {
+        return cachedProvider.parseAndValidate(token).getSubject();
+    }
+
+    private static Key legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,93 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.mapper.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> response mapping cost for one page of users.
+ *
+ * modelMapperPerElement: the old Helper.getPageableResponse path, a new ModelMapper for every row.
+ * sharedModelMapper: one ModelMapper reused for the whole page (type maps cached).
+ * handWrittenMapper: UserMapper, plain getters and a builder.
+ *
+ * The gc profiler (enabled in build.gradle) reports the allocation per page.
+ * Run with: ./gradlew jmh -PjmhIncludes=MappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<User> page;
+    private ModelMapper sharedMapper;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        roles.add(new Role(1L, "ROLE_NORMAL", true, false));
+        roles.add(new Role(2L, "ROLE_WORKER", true, false));
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setName("User " + i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuu0123456789abcdefghijklmnopqrstu");
+            user.setPhoNo("98765" + i);
+            user.setAbout("about " + i);
+            user.setImageName("user" + i + ".png");
+            user.setDeletedOn(LocalDateTime.now());
+            user.setRoles(roles);
+            user.setAccountStatus(AccountStatus.builder().id(i).isActive(true).build());
+            page.add(user);
+        }
+        sharedMapper = new ModelMapper();
+    }
+
+    @Benchmark
+    public List<UserResponse> modelMapperPerElement() {
+        List<UserResponse> result = new ArrayList<>(page.size());
+        for (User user : page) {
+            result.add(new ModelMapper().map(user, UserResponse.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserResponse> sharedModelMapper() {
+        List<UserResponse> result = new ArrayList<>(page.size());
+        for (User user : page) {
+            result.add(sharedMapper.map(user, UserResponse.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserResponse> handWrittenMapper() {
+        List<UserResponse> result = new ArrayList<>(page.size());
+        for (User user : page) {
+            result.add(UserMapper.toResponse(user));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.search.PrefixIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete latency and footprint of the prefix index (SearchIndexService).
+ *
+ * completeUsers: one partition holding every document, the /api/users/autocomplete path.
+ * completeTenant: one super user's partition, documents spread over 1000 super users.
+ * upsert: an edit re-keying an existing document, including its share of delta merges.
+ *
+ * Setup prints the estimated heap use of each index; with -prof gc the allocation per
+ * lookup is reported as well.
+ * Run with: ./gradlew jmh -PjmhIncludes=PrefixIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class PrefixIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "ran", "ma", "noj", "vi", "jay", "su", "resh", "an", "il",
+            "pri", "ya", "ra", "hul", "de", "v", "neh", "a", "sh", "ree"};
+    private static final int PARTITIONS = 1000;
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    private PrefixIndex users;
+    private PrefixIndex tenants;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        users = new PrefixIndex();
+        tenants = new PrefixIndex();
+        for (long id = 1; id <= documents; id++) {
+            String[] keys = keys(id);
+            users.add(id, 0L, keys);
+            tenants.add(id, id % PARTITIONS, keys);
+        }
+        users.compact();
+        tenants.compact();
+        System.out.printf("%n%d documents, %d keys: single partition ~%d MB, %d partitions ~%d MB%n",
+                documents, users.size(), users.estimatedBytes() >> 20, PARTITIONS, tenants.estimatedBytes() >> 20);
+    }
+
+    @Benchmark
+    public int completeUsers() {
+        return users.complete(0L, "kar", 10).size();
+    }
+
+    @Benchmark
+    public int completeTenant() {
+        return tenants.complete(7L, "ma", 10).size();
+    }
+
+    @Benchmark
+    public void upsert() {
+        long id = 1 + random.nextInt(documents);
+        users.upsert(id, 0L, keys(id));
+    }
+
+    private String[] keys(long id) {
+        String name = word() + " " + word();
+        String username = word() + id;
+        return new String[]{username, username + "@example.com", name, name.substring(name.indexOf(' ') + 1)};
+    }
+
+    private String word() {
+        StringBuilder sb = new StringBuilder();
+        int parts = 2 + random.nextInt(2);
+        for (int i = 0; i < parts; i++) {
+            sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return sb.toString();
+    }
+}
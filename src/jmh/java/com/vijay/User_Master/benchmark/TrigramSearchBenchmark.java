@@ -0,0 +1,66 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.search.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search latency of the in-memory trigram index (SearchIndexService).
+ *
+ * searchOnePartition: one super user's workers, the advanced-filter path.
+ * searchAllPartitions: every worker, the /search path.
+ *
+ * Workers are spread over 1000 super users, names and usernames are random syllables
+ * so trigram selectivity is close to real data.
+ * Run with: ./gradlew jmh -PjmhIncludes=TrigramSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class TrigramSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "ran", "ma", "noj", "vi", "jay", "su", "resh", "an", "il",
+            "pri", "ya", "ra", "hul", "de", "v", "neh", "a", "sh", "ree"};
+    private static final int PARTITIONS = 1000;
+
+    @Param({"100000", "1000000"})
+    private int workers;
+
+    private TrigramIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        for (long id = 1; id <= workers; id++) {
+            String name = word(random) + " " + word(random);
+            String username = word(random) + id;
+            index.upsert(id, id % PARTITIONS, new String[]{name, username, username + "@example.com",
+                    "98" + (10_000_000 + random.nextInt(89_999_999))}, false, random.nextBoolean());
+        }
+    }
+
+    @Benchmark
+    public int searchOnePartition() {
+        return index.search(7L, "karan", false, null, 0, 10).total();
+    }
+
+    @Benchmark
+    public int searchAllPartitions() {
+        return index.search(null, "manoj", null, null, 0, 10).total();
+    }
+
+    private static String word(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int parts = 2 + random.nextInt(2);
+        for (int i = 0; i < parts; i++) {
+            sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return sb.toString();
+    }
+}
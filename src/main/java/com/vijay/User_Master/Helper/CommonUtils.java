@@ -23,4 +23,9 @@ public class CommonUtils {
         apiUrl = apiUrl.replace(request.getServletPath(), ""); // http:localhost:8080
         return apiUrl;
     }
+
+    // Behind a proxy set server.forward-headers-strategy so this is the real client address
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
 }
@@ -1,17 +1,27 @@
 package com.vijay.User_Master.Helper;
 
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
-import org.modelmapper.ModelMapper;
+import com.vijay.User_Master.dto.SliceResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 public class Helper {
 
-    public static <U, V> PageableResponse<V> getPageableResponse(Page<U> page, Class<V> type) {
+    // Rows are converted with a hand-written mapper (see the mapper package), no reflection per element
+    public static <U, V> PageableResponse<V> getPageableResponse(Page<U> page, Function<? super U, ? extends V> mapper) {
         List<U> entity = page.getContent();
-        List<V> dtoList = entity.stream().map(object -> new ModelMapper().map(object, type)).collect(Collectors.toList());
+        List<V> dtoList = new ArrayList<>(entity.size());
+        for (U object : entity) {
+            dtoList.add(mapper.apply(object));
+        }
 
         PageableResponse<V> response = new PageableResponse<>();
         response.setContent(dtoList);
@@ -22,5 +32,86 @@ public class Helper {
         response.setLastPage(page.isLast());
         return response;
     }
-}
 
+    // Page content read as a Slice (no COUNT query) with the total from ListCountCache
+    public static <U, V> PageableResponse<V> getPageableResponse(Slice<U> slice, long totalElements, boolean approximate,
+                                                                 Function<? super U, ? extends V> mapper) {
+        // The slice is fresh, the cached total may not be: keep the total consistent with what was read
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long read = offset + slice.getNumberOfElements();
+        long total;
+        if (slice.hasNext()) {
+            total = Math.max(totalElements, read + 1);
+        } else if (slice.hasContent() || offset == 0) {
+            total = read;
+        } else {
+            total = Math.min(totalElements, offset); // paged past the end
+        }
+        Page<U> page = new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+        PageableResponse<V> response = getPageableResponse(page, mapper);
+        response.setLastPage(!slice.hasNext());
+        response.setTotalApproximate(approximate);
+        return response;
+    }
+
+    public static <U, V> SliceResponse<V> getSliceResponse(Slice<U> slice, Function<? super U, ? extends V> mapper) {
+        List<V> dtoList = new ArrayList<>(slice.getNumberOfElements());
+        for (U object : slice.getContent()) {
+            dtoList.add(mapper.apply(object));
+        }
+
+        SliceResponse<V> response = new SliceResponse<>();
+        response.setContent(dtoList);
+        response.setPageNumber(slice.getNumber());
+        response.setPageSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        return response;
+    }
+
+    /*
+     *  Assemble a keyset page: `positions` holds up to pageSize + 1 entries (the extra one only
+     *  tells there is a next page), `loader` fetches the rows for the ids in any order.
+     */
+    public static <R, V> CursorPageResponse<V> getCursorPageResponse(List<KeysetCursor> positions, int pageSize,
+                                                                      Function<List<Long>, List<R>> loader,
+                                                                      Function<R, Long> idOf,
+                                                                      Function<? super R, ? extends V> mapper) {
+        boolean hasNext = positions.size() > pageSize;
+        List<KeysetCursor> page = hasNext ? positions.subList(0, pageSize) : positions;
+
+        List<Long> ids = new ArrayList<>(page.size());
+        for (KeysetCursor position : page) {
+            ids.add(position.lastId());
+        }
+        List<V> content = new ArrayList<>(ids.size());
+        for (R row : loadInOrder(ids, loader, idOf)) {
+            content.add(mapper.apply(row));
+        }
+
+        CursorPageResponse<V> response = new CursorPageResponse<>();
+        response.setContent(content);
+        response.setPageSize(pageSize);
+        response.setHasNext(hasNext);
+        response.setNextCursor(hasNext ? page.get(page.size() - 1).encode() : null);
+        return response;
+    }
+
+    // Load rows by id (single IN query) and return them in the order of `ids`, missing rows are skipped
+    public static <R> List<R> loadInOrder(List<Long> ids, Function<List<Long>, List<R>> loader, Function<R, Long> idOf) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, R> rows = new HashMap<>();
+        for (R row : loader.apply(ids)) {
+            rows.put(idOf.apply(row), row);
+        }
+        List<R> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            R row = rows.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,59 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a keyset (seek) paginated listing: the sort key and id of the last row
+ * returned. It travels to the client as an opaque URL-safe token, so the next page is
+ * read with {@code WHERE (key, id) > (last key, last id)} instead of an OFFSET scan.
+ *
+ * The sort column and direction are part of the token, filters are not and must be
+ * sent again with every page. A present sort value is written with a leading '=', so a
+ * NULL value (empty) stays distinct from an empty string.
+ */
+public record KeysetCursor(String sortBy, boolean descending, String lastValue, Long lastId) {
+
+    // Sortable columns, each one is backed by a (column, id) index
+    public static final Set<String> SORT_KEYS = Set.of("id", "name", "username", "email");
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static KeysetCursor first(String sortBy, String sortDir) {
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new BadApiRequestException("Cursor pagination can only sort by " + SORT_KEYS);
+        }
+        return new KeysetCursor(sortBy, "desc".equalsIgnoreCase(sortDir), null, null);
+    }
+
+    public KeysetCursor after(String value, Long id) {
+        return new KeysetCursor(sortBy, descending, value, id);
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public String encode() {
+        String raw = sortBy + '\n' + (descending ? "desc" : "asc") + '\n' + lastId + '\n'
+                + (lastValue == null ? "" : "=" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4 || !SORT_KEYS.contains(parts[0])) {
+                throw new BadApiRequestException("Invalid cursor");
+            }
+            String value = parts[3].isEmpty() ? null : parts[3].startsWith("=") ? parts[3].substring(1) : parts[3];
+            return new KeysetCursor(parts[0], "desc".equals(parts[1]), value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+    }
+}
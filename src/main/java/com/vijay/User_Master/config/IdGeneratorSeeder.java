@@ -0,0 +1,48 @@
+package com.vijay.User_Master.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*
+ *  workers and account_status used IDENTITY ids, which make Hibernate insert row by row.
+ *  They now draw pooled ids from the id_generators table (Hibernate's pooled optimizer hands
+ *  out hi - ALLOCATION_SIZE + 1 .. hi for a stored value hi), so inserts can go out as JDBC
+ *  batches. Before any insert the stored values are raised above MAX(id) of their table:
+ *  on the first start after the switch, and after rows were written by an older instance
+ *  still on AUTO_INCREMENT. Runs after the schema update, as the entity manager factory is built.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Log4j2
+public class IdGeneratorSeeder {
+
+    public static final String TABLE = "id_generators";
+    public static final int ALLOCATION_SIZE = 50;
+
+    // generator key (pkColumnValue) -> table whose ids it generates
+    private static final Map<String, String> GENERATORS = Map.of(
+            "workers", "workers",
+            "account_status", "account_status");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        GENERATORS.forEach((generator, table) -> {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (sequence_name, next_val) " +
+                            "SELECT ?, m.seeded FROM (SELECT COALESCE(MAX(id), 0) + ? AS seeded FROM " + table + ") m " +
+                            "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, m.seeded)",
+                    generator, ALLOCATION_SIZE + 1);
+            log.info("Id generator {} seeded above MAX(id) of {}", generator, table);
+        });
+    }
+}
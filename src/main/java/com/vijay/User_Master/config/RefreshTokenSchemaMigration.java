@@ -0,0 +1,42 @@
+package com.vijay.User_Master.config;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+ *  refresh_token used @OneToOne owners, for which Hibernate created unique keys on
+ *  user_id / worker_id. ddl-auto=update never drops them, and they would block a second
+ *  session per identity, so they are dropped once at startup. The foreign keys stay
+ *  covered by the (user_id, id) / (worker_id, id) indexes declared on the entity.
+ */
+@Component
+@AllArgsConstructor
+@Log4j2
+public class RefreshTokenSchemaMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropSingleSessionKeys() {
+        try {
+            List<String> indexes = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT index_name FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = 'refresh_token' " +
+                            "AND non_unique = 0 AND index_name <> 'PRIMARY' " +
+                            "AND column_name IN ('user_id', 'worker_id')",
+                    String.class);
+            for (String index : indexes) {
+                jdbcTemplate.execute("ALTER TABLE refresh_token DROP INDEX `" + index + "`");
+                log.info("Dropped single-session unique key {} on refresh_token", index);
+            }
+        } catch (Exception ex) {
+            log.warn("Could not check refresh_token for single-session unique keys: {}", ex.getMessage());
+        }
+    }
+}
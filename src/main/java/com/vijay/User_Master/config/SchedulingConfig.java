@@ -0,0 +1,10 @@
+package com.vijay.User_Master.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled background jobs (refresh token sweeping etc.)
+}
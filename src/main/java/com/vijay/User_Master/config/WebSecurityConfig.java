@@ -1,9 +1,12 @@
 package com.vijay.User_Master.config;
 
+import com.vijay.User_Master.config.security.BoundedPasswordEncoder;
 import com.vijay.User_Master.config.security.JwtAuthenticationEntryPoint;
 import com.vijay.User_Master.config.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import org.apache.catalina.filters.CorsFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -19,8 +22,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -76,7 +77,10 @@ public class WebSecurityConfig {
                         // 4) MCP endpoints - explicit patterns
                         .requestMatchers("/api/mcp-servers/**").permitAll()
 
-                        // 5) Everything else needs JWT
+                        // 5) Bulk user actions change other accounts: admins only
+                        .requestMatchers("/api/users/bulk/**").hasRole("ADMIN")
+
+                        // 6) Everything else needs JWT
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint))
@@ -84,9 +88,14 @@ public class WebSecurityConfig {
 
         return http.build();
     }
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt on a dedicated bounded pool, see BoundedPasswordEncoder
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                  @Value("${app.security.password.bcrypt-strength:10}") int strength,
+                                                  @Value("${app.security.password.hash-threads:0}") int threads,
+                                                  @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${app.security.password.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, waitTimeoutMillis, meterRegistry);
     }
 
     @Bean
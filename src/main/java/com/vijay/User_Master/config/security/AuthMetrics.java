@@ -0,0 +1,72 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.config.QueryCountInspector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency (with p50/p99) and SQL statement count per login and per token refresh.
+ * Published as auth.login / auth.login.statements and auth.refresh / auth.refresh.statements.
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer loginTimer;
+    private final DistributionSummary loginStatements;
+    private final Timer refreshTimer;
+    private final DistributionSummary refreshStatements;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.loginTimer = Timer.builder("auth.login")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.loginStatements = DistributionSummary.builder("auth.login.statements")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.refreshTimer = Timer.builder("auth.refresh")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.refreshStatements = DistributionSummary.builder("auth.refresh.statements")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    public <T> T recordLogin(Supplier<T> login) {
+        return record(login, loginTimer, loginStatements);
+    }
+
+    public <T> T recordRefresh(Supplier<T> refresh) {
+        return record(refresh, refreshTimer, refreshStatements);
+    }
+
+    public Timer getLoginTimer() {
+        return loginTimer;
+    }
+
+    public DistributionSummary getLoginStatements() {
+        return loginStatements;
+    }
+
+    public Timer getRefreshTimer() {
+        return refreshTimer;
+    }
+
+    public DistributionSummary getRefreshStatements() {
+        return refreshStatements;
+    }
+
+    // Only successful calls are recorded, rejected logins would skew the distribution
+    private static <T> T record(Supplier<T> action, Timer timer, DistributionSummary statements) {
+        QueryCountInspector.reset();
+        long start = System.nanoTime();
+        T result = action.get();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        statements.record(QueryCountInspector.count());
+        return result;
+    }
+}
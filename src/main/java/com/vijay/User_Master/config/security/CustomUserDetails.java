@@ -7,7 +7,6 @@ import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.Worker;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
 
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,29 +15,32 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/*
+ *  Immutable principal snapshot.
+ *  It is detached from JPA (roles and account status are copied) so it can be cached
+ *  and shared between requests, see PrincipalCache.
+ */
 @Getter
-@Setter
 @AllArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
-    private Long id;
-    private String name;
-    private String username;
-    private String email;
+    private final Long id;
+    private final String name;
+    private final String username;
+    private final String email;
     @JsonIgnore
-    private String password;
-    private Set<Role> roles;
-    private String phoNo;
-    private boolean isDeleted;
-    private LocalDateTime deletedOn;
-    private String imageName;
-    @JsonIgnore
-    private List<Worker> workers;
-    private AccountStatus accountStatus;
+    private final String password;
+    private final Set<Role> roles;
+    private final String phoNo;
+    private final boolean isDeleted;
+    private final LocalDateTime deletedOn;
+    private final String imageName;
+    private final AccountStatus accountStatus;
+    private final PrincipalType type;
+    private final Set<GrantedAuthority> authorities;
 
 
     public static CustomUserDetails build(User user) {
@@ -48,13 +50,14 @@ public class CustomUserDetails implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                user.getRoles(),
+                copyRoles(user.getRoles()),
                 user.getPhoNo(),
                 user.isDeleted(),
                 user.getDeletedOn(),
                 user.getImageName(),
-                user.getWorkers(),
-                user.getAccountStatus()
+                copyStatus(user.getAccountStatus()),
+                PrincipalType.USER,
+                toAuthorities(user.getRoles())
         );
     }
 
@@ -65,21 +68,81 @@ public class CustomUserDetails implements UserDetails {
                 worker.getUsername(),
                 worker.getEmail(),
                 worker.getPassword(),
-                worker.getRoles(),
+                copyRoles(worker.getRoles()),
                 worker.getPhoNo(),
                 worker.isDeleted(),
                 worker.getDeletedOn(),
                 worker.getImageName(),
-                null, // Workers don't have associated workers, so set it to null
-                worker.getAccountStatus()
+                copyStatus(worker.getAccountStatus()),
+                PrincipalType.WORKER,
+                toAuthorities(worker.getRoles())
         );
     }
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
+    /*
+     *  Slim principal rebuilt from JWT claims (stateless auth mode).
+     *  Only the identity and authorities are known, roles and profile fields stay empty.
+     */
+    public static CustomUserDetails fromClaims(Long id, PrincipalType type, String username, String email,
+                                               Collection<String> roleNames) {
+        Set<GrantedAuthority> authorities = roleNames.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableSet());
+        return new CustomUserDetails(
+                id,
+                null,
+                username,
+                email,
+                null,
+                Set.of(),
+                null,
+                false,
+                null,
+                null,
+                null,
+                type,
+                authorities
+        );
+    }
+
+    // Same snapshot with a new password hash, used after a transparent rehash on login
+    public CustomUserDetails withPassword(String newPassword) {
+        return new CustomUserDetails(id, name, username, email, newPassword, roles, phoNo, isDeleted, deletedOn,
+                imageName, accountStatus, type, authorities);
+    }
+
+    private static Set<Role> copyRoles(Set<Role> roles) {
+        if (roles == null) {
+            return Set.of();
+        }
+        return roles.stream()
+                .map(role -> new Role(role.getId(), role.getName(), role.isActive(), role.isDeleted()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Only the activation flag is kept, verification and reset tokens never leave the entity
+    private static AccountStatus copyStatus(AccountStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return AccountStatus.builder()
+                .id(status.getId())
+                .isActive(status.getIsActive())
+                .build();
+    }
+
+    private static Set<GrantedAuthority> toAuthorities(Set<Role> roles) {
+        if (roles == null) {
+            return Set.of();
+        }
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
     }
 
     @Override
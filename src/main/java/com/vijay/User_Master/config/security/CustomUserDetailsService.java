@@ -1,12 +1,16 @@
 package com.vijay.User_Master.config.security;
 
+import com.vijay.User_Master.entity.IdentityLookup;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.event.IdentityChangedEvent;
 import com.vijay.User_Master.entity.Worker;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
 import lombok.AllArgsConstructor;
-
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,29 +18,94 @@ import java.util.Optional;
 
 @AllArgsConstructor
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+@Log4j2
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private WorkerRepository workerRepository;
+    private final PrincipalCache principalCache;
+    private final IdentityLookupIndex identityLookup;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        Optional<User> userOptional = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        CustomUserDetails cached = principalCache.get(usernameOrEmail);
+        if (cached != null) {
+            return cached;
+        }
+        if (principalCache.isKnownMissing(usernameOrEmail)) {
+            throw new UsernameNotFoundException("Worker not found with username: " + usernameOrEmail);
+        }
+        CustomUserDetails principal = identityLookup.isReady()
+                ? resolveByLookup(usernameOrEmail)
+                : resolveFromTables(usernameOrEmail);
+        if (principal == null) {
+            principalCache.putMissing(usernameOrEmail);
+            throw new UsernameNotFoundException("Worker not found with username: " + usernameOrEmail);
+        }
+        principalCache.put(usernameOrEmail, principal);
+        return principal;
+    }
+
+    // One point lookup in identity_lookup, then the principal by primary key
+    private CustomUserDetails resolveByLookup(String usernameOrEmail) {
+        Optional<IdentityLookup> entry = identityLookup.find(usernameOrEmail);
+        if (entry.isEmpty()) {
+            // Rows written around the index (imports, direct repository saves) are not there yet
+            CustomUserDetails principal = resolveFromTables(usernameOrEmail);
+            if (principal != null) {
+                identityLookup.backfill(principal.getType(), principal.getId());
+            }
+            return principal;
+        }
+        Long id = entry.get().getPrincipalId();
+        CustomUserDetails principal = entry.get().getPrincipalType() == PrincipalType.USER
+                ? userRepository.findDetailById(id).map(CustomUserDetails::build).orElse(null)
+                : workerRepository.findDetailById(id).map(CustomUserDetails::build).orElse(null);
+        if (principal != null && IdentityLookupIndex.matches(principal, usernameOrEmail)) {
+            return principal;
+        }
+        log.warn("Stale identity lookup entry for {} {}, resolving from the tables", entry.get().getPrincipalType(), id);
+        return resolveFromTables(usernameOrEmail);
+    }
+
+    private CustomUserDetails resolveFromTables(String usernameOrEmail) {
+        Optional<User> userOptional = userRepository.findPrincipalByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
         if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            return CustomUserDetails.build(user);
+            return CustomUserDetails.build(userOptional.get());
+        }
+        return workerRepository.findPrincipalByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+                .map(CustomUserDetails::build)
+                .orElse(null);
+    }
+
+    /*
+     *  Called by the authentication provider after a successful login when the stored
+     *  hash uses a different BCrypt cost than configured (BoundedPasswordEncoder.upgradeEncoding).
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof CustomUserDetails details) || details.getType() == null) {
+            return user;
+        }
+        if (details.getType() == PrincipalType.USER) {
+            userRepository.updatePassword(details.getId(), newPassword);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(details.getId()));
         } else {
-            Optional<Worker> workerOptional = workerRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
-            Worker worker = workerOptional.orElseThrow(() -> new UsernameNotFoundException("Worker not found with username: " + usernameOrEmail));
-            return CustomUserDetails.build(worker);
+            workerRepository.updatePassword(details.getId(), newPassword);
+            eventPublisher.publishEvent(IdentityChangedEvent.worker(details.getId()));
         }
+        log.info("Rehashed password of {} {} with the configured BCrypt cost", details.getType(), details.getId());
+        return details.withPassword(newPassword);
     }
+
     public UserDetails loadUserByUsernameOrEmail(String username, String email) {
-        Optional<User> userOptional = userRepository.findByUsernameOrEmail(username, email);
+        Optional<User> userOptional = userRepository.findPrincipalByUsernameOrEmail(username, email);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             return CustomUserDetails.build(user);
         } else {
-            Optional<Worker> workerOptional = workerRepository.findByUsernameOrEmail(username, email);
+            Optional<Worker> workerOptional = workerRepository.findPrincipalByUsernameOrEmail(username, email);
             Worker worker = workerOptional.orElseThrow(() -> new UsernameNotFoundException("Worker not found with username: " + username + " or email: " + email));
             return CustomUserDetails.build(worker);
         }
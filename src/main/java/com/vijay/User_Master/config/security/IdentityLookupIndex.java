@@ -0,0 +1,186 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.entity.IdentityLookup;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.IdentityLookupRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.search.SearchIndexRow;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Unified identity index: the {@code identity_lookup} table maps every normalized username
+ * and e-mail of users and workers to its owner, so resolving a login name is one primary-key
+ * lookup there plus one primary-key fetch of the principal.
+ *
+ * The table is reconciled with set-based statements once the application is ready, and
+ * kept in sync from {@link IdentityChangedEvent}: the changed rows are read inside the
+ * writing transaction and their entries written in a transaction of their own, so a failure
+ * here never fails the write. Until reconciliation finishes, or after a failed update,
+ * {@link #isReady()} is false and callers query the users and workers tables directly.
+ */
+@Component
+@Log4j2
+public class IdentityLookupIndex {
+
+    private final IdentityLookupRepository lookupRepository;
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final TransactionTemplate writeTx;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public IdentityLookupIndex(IdentityLookupRepository lookupRepository,
+                               UserRepository userRepository,
+                               WorkerRepository workerRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.identity-lookup.enabled:true}") boolean enabled) {
+        this.lookupRepository = lookupRepository;
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (enabled) {
+            reconcileInBackground();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public Optional<IdentityLookup> find(String identifier) {
+        return lookupRepository.findById(normalize(identifier));
+    }
+
+    public boolean anyTaken(Collection<String> identifiers) {
+        return lookupRepository.existsByIdentifierIn(identifiers.stream().map(IdentityLookupIndex::normalize).toList());
+    }
+
+    // Normalized keys of the given identifiers that are taken, one primary-key lookup each
+    public Set<String> takenAmong(Collection<String> identifiers) {
+        List<String> keys = identifiers.stream().map(IdentityLookupIndex::normalize).distinct().toList();
+        Set<String> taken = new HashSet<>();
+        lookupRepository.findAllById(keys).forEach(entry -> taken.add(entry.getIdentifier()));
+        return taken;
+    }
+
+    // Guards against an entry that is stale because its write was rolled back or raced a rename
+    public static boolean matches(CustomUserDetails principal, String identifier) {
+        String key = normalize(identifier);
+        return key.equals(normalize(principal.getUsername())) || key.equals(normalize(principal.getEmail()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIdentityChanged(IdentityChangedEvent event) {
+        if (!enabled || event.ids().isEmpty()) {
+            return;
+        }
+        try {
+            List<SearchIndexRow> rows = event.type() == PrincipalType.USER
+                    ? userRepository.findSearchIndexRowsByIds(event.ids())
+                    : workerRepository.findSearchIndexRowsByIds(event.ids());
+            writeTx.executeWithoutResult(status -> sync(event.type(), event.ids(), rows));
+        } catch (RuntimeException ex) {
+            log.error("Identity lookup update for {} {} failed, resolving from the tables until reconciled",
+                    event.type(), event.ids(), ex);
+            ready = false;
+            reconcileInBackground();
+        }
+    }
+
+    // Writes the entries of a principal that resolved from the tables after a lookup miss
+    public void backfill(PrincipalType type, Long id) {
+        onIdentityChanged(new IdentityChangedEvent(type, Set.of(id)));
+    }
+
+    void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            int[] counts = writeTx.execute(status -> new int[]{
+                    lookupRepository.deleteStaleUserEntries() + lookupRepository.deleteStaleWorkerEntries(),
+                    lookupRepository.insertMissingUserEntries() + lookupRepository.insertMissingWorkerEntries()
+            });
+            ready = true;
+            log.info("Identity lookup reconciled in {} ms: {} stale entries removed, {} added",
+                    System.currentTimeMillis() - start, counts[0], counts[1]);
+        } catch (RuntimeException ex) {
+            log.error("Identity lookup reconciliation failed, logins resolve from the tables", ex);
+        }
+    }
+
+    private void reconcileInBackground() {
+        Thread worker = new Thread(this::reconcile, "identity-lookup-reconcile");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void sync(PrincipalType type, Set<Long> ids, List<SearchIndexRow> rows) {
+        Map<Long, Set<String>> wanted = new HashMap<>();
+        for (SearchIndexRow row : rows) {
+            Set<String> identifiers = new LinkedHashSet<>();
+            identifiers.add(normalize(row.username()));
+            identifiers.add(normalize(row.email()));
+            identifiers.remove("");
+            wanted.put(row.id(), identifiers);
+        }
+
+        // Entries of renamed or deleted principals go, entries still owned stay untouched
+        List<IdentityLookup> stale = new ArrayList<>();
+        Set<String> kept = new LinkedHashSet<>();
+        for (IdentityLookup entry : lookupRepository.findByPrincipalTypeAndPrincipalIdIn(type, ids)) {
+            if (wanted.getOrDefault(entry.getPrincipalId(), Set.of()).contains(entry.getIdentifier())) {
+                kept.add(entry.getIdentifier());
+            } else {
+                stale.add(entry);
+            }
+        }
+        lookupRepository.deleteAll(stale);
+
+        for (Map.Entry<Long, Set<String>> principal : wanted.entrySet()) {
+            for (String identifier : principal.getValue()) {
+                if (kept.contains(identifier)) {
+                    continue;
+                }
+                Optional<IdentityLookup> owner = lookupRepository.findById(identifier);
+                if (owner.isPresent() && !(type == PrincipalType.USER && owner.get().getPrincipalType() == PrincipalType.WORKER)) {
+                    // Same precedence as the old lookup, which tried users before workers
+                    log.warn("Identifier of {} {} is already owned by {} {}, keeping the existing entry",
+                            type, principal.getKey(), owner.get().getPrincipalType(), owner.get().getPrincipalId());
+                    continue;
+                }
+                lookupRepository.save(new IdentityLookup(identifier, type, principal.getKey()));
+            }
+        }
+    }
+
+    public static String normalize(String identifier) {
+        return identifier == null ? "" : identifier.trim().toLowerCase(Locale.ROOT);
+    }
+}
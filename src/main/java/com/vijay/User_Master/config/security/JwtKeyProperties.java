@@ -0,0 +1,39 @@
+package com.vijay.User_Master.config.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ *  app.jwt.key-ring.* : additional JWT keys next to app.jwt-secret, see JwtKeyRing.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.jwt.key-ring")
+public class JwtKeyProperties {
+
+    // kid given to the app.jwt-secret HMAC key, also used for tokens issued without a kid
+    private String defaultKid = "default";
+
+    // kid of the key that signs new tokens
+    private String activeKid = "default";
+
+    private List<KeyDefinition> keys = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class KeyDefinition {
+        private String kid;
+        // HS256/384/512, ES256/384/512, RS256/384/512, PS256/384/512
+        private String algorithm;
+        // HMAC: Base64 secret
+        private String secret;
+        // Asymmetric: Base64 DER or PEM. Without a private key the key only verifies,
+        // with neither key a pair is generated at startup (lost on restart)
+        private String privateKey;
+        private String publicKey;
+    }
+}
@@ -0,0 +1,169 @@
+package com.vijay.User_Master.config.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT signing keys by key id ({@code kid}).
+ *
+ * One key is active and signs new tokens; every key in the ring verifies tokens that name
+ * it in their header. Lookups go through a {@link ConcurrentHashMap}, so verification never
+ * locks. To rotate: add the new key, make it active, and keep the old key in the ring until
+ * the tokens it signed have expired.
+ *
+ * Asymmetric keys (ES256/ES384/ES512, RS256/...) are published as a JWK set so other
+ * services can verify tokens without calling this one.
+ */
+public class JwtKeyRing {
+
+    public record KeyEntry(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey) {
+
+        public boolean canSign() {
+            return signingKey != null;
+        }
+
+        public boolean isAsymmetric() {
+            return algorithm.isEllipticCurve() || algorithm.isRsa();
+        }
+    }
+
+    private final Map<String, KeyEntry> keys = new ConcurrentHashMap<>();
+    private final String legacyKid;
+    private volatile KeyEntry active;
+
+    /**
+     * @param legacyKid key used for tokens without a {@code kid} header (issued before the key ring)
+     */
+    public JwtKeyRing(Collection<KeyEntry> entries, String activeKid, String legacyKid) {
+        entries.forEach(this::add);
+        this.legacyKid = legacyKid;
+        activate(activeKid);
+    }
+
+    public static KeyEntry hmac(String kid, String base64Secret) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forSigningKey(key);
+        return new KeyEntry(kid, algorithm, key, key);
+    }
+
+    /**
+     * Asymmetric key from Base64 DER (PKCS#8 private, X.509 public). Without a private key the
+     * entry only verifies, e.g. a retired key whose tokens have not expired yet.
+     */
+    public static KeyEntry asymmetric(String kid, SignatureAlgorithm algorithm, String base64PrivateKey,
+                                      String base64PublicKey) {
+        String keyType = algorithm.isEllipticCurve() ? "EC" : "RSA";
+        try {
+            KeyFactory factory = KeyFactory.getInstance(keyType);
+            PrivateKey privateKey = base64PrivateKey == null || base64PrivateKey.isBlank() ? null
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(decodeDer(base64PrivateKey)));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(decodeDer(base64PublicKey)));
+            return new KeyEntry(kid, algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid " + algorithm + " key for kid '" + kid + "'", ex);
+        }
+    }
+
+    // Fresh key pair, valid until restart (local development, benchmarks)
+    public static KeyEntry generate(String kid, SignatureAlgorithm algorithm) {
+        if (algorithm.isHmac()) {
+            Key key = Keys.secretKeyFor(algorithm);
+            return new KeyEntry(kid, algorithm, key, key);
+        }
+        KeyPair pair = Keys.keyPairFor(algorithm);
+        return new KeyEntry(kid, algorithm, pair.getPrivate(), pair.getPublic());
+    }
+
+    public void add(KeyEntry entry) {
+        keys.put(entry.kid(), entry);
+    }
+
+    public void activate(String kid) {
+        KeyEntry entry = keys.get(kid);
+        if (entry == null || !entry.canSign()) {
+            throw new IllegalStateException("No signing key with kid '" + kid + "' in the key ring");
+        }
+        this.active = entry;
+    }
+
+    public KeyEntry active() {
+        return active;
+    }
+
+    // Key named by a token header, null if the kid is unknown
+    public KeyEntry verifierFor(String kid) {
+        return keys.get(kid != null ? kid : legacyKid);
+    }
+
+    public KeyEntry find(String kid) {
+        return keys.get(kid);
+    }
+
+    // JWK set (RFC 7517) with the public halves of the asymmetric keys
+    public Map<String, Object> publicJwks() {
+        List<Map<String, Object>> jwks = keys.values().stream()
+                .filter(KeyEntry::isAsymmetric)
+                .map(JwtKeyRing::toJwk)
+                .toList();
+        return Map.of("keys", jwks);
+    }
+
+    private static Map<String, Object> toJwk(KeyEntry entry) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", entry.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", entry.algorithm().getValue());
+        if (entry.verificationKey() instanceof ECPublicKey ec) {
+            int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-" + ec.getParams().getCurve().getField().getFieldSize());
+            jwk.put("x", base64Url(ec.getW().getAffineX(), size));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), size));
+        } else if (entry.verificationKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        }
+        return jwk;
+    }
+
+    // Unsigned big-endian, left-padded to size bytes (EC coordinates), size 0 = minimal length
+    private static String base64Url(BigInteger value, int size) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (size > bytes.length) {
+            byte[] padded = new byte[size];
+            System.arraycopy(bytes, 0, padded, size - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Accepts plain Base64 DER or a PEM block
+    private static byte[] decodeDer(String value) {
+        String body = value.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vijay.User_Master.config.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(JwtKeyProperties.class)
+@Log4j2
+public class JwtKeyRingConfig {
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(@Value("${app.jwt-secret}") String jwtSecret, JwtKeyProperties properties) {
+        List<JwtKeyRing.KeyEntry> entries = new ArrayList<>();
+        entries.add(JwtKeyRing.hmac(properties.getDefaultKid(), jwtSecret));
+
+        for (JwtKeyProperties.KeyDefinition key : properties.getKeys()) {
+            SignatureAlgorithm algorithm = SignatureAlgorithm.forName(key.getAlgorithm());
+            if (algorithm.isHmac()) {
+                entries.add(JwtKeyRing.hmac(key.getKid(), key.getSecret()));
+            } else if (key.getPublicKey() != null && !key.getPublicKey().isBlank()) {
+                entries.add(JwtKeyRing.asymmetric(key.getKid(), algorithm, key.getPrivateKey(), key.getPublicKey()));
+            } else {
+                log.warn("No key material for JWT key '{}', generated a {} pair that is lost on restart",
+                        key.getKid(), algorithm);
+                entries.add(JwtKeyRing.generate(key.getKid(), algorithm));
+            }
+        }
+
+        JwtKeyRing keyRing = new JwtKeyRing(entries, properties.getActiveKid(), properties.getDefaultKid());
+        log.info("JWT key ring: {} keys, signing with '{}' ({})", entries.size(),
+                keyRing.active().kid(), keyRing.active().algorithm());
+        return keyRing;
+    }
+}
@@ -0,0 +1,115 @@
+package com.vijay.User_Master.config.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns verified JWT claims into the request principal.
+ *
+ * In the default mode the principal is loaded from the database on every request.
+ * With {@code app.jwt.stateless-auth.enabled=true} the principal is rebuilt from the
+ * token claims alone, and the database is only consulted once every
+ * {@code app.jwt.stateless-auth.recheck-minutes} per identity to catch deleted or
+ * deactivated accounts before the token expires.
+ */
+@Component
+@Log4j2
+public class JwtPrincipalResolver {
+
+    private static final int MAX_TRACKED_PRINCIPALS = 100_000;
+
+    private final UserDetailsService userDetailsService;
+    private final boolean statelessEnabled;
+    private final long recheckIntervalMillis;
+
+    // "TYPE:id" -> last time the identity was confirmed against the database
+    private final Map<String, Long> lastVerified = new ConcurrentHashMap<>();
+
+    public JwtPrincipalResolver(UserDetailsService userDetailsService,
+                                @Value("${app.jwt.stateless-auth.enabled:false}") boolean statelessEnabled,
+                                @Value("${app.jwt.stateless-auth.recheck-minutes:15}") long recheckMinutes) {
+        this.userDetailsService = userDetailsService;
+        this.statelessEnabled = statelessEnabled;
+        this.recheckIntervalMillis = TimeUnit.MINUTES.toMillis(recheckMinutes);
+    }
+
+    /**
+     * @return the principal for the token, or {@code null} if the identity failed its database re-check
+     */
+    public UserDetails resolve(Claims claims) {
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        if (!statelessEnabled || !hasPrincipalClaims(claims)) {
+            // Tokens issued before stateless mode have no principal claims
+            return userDetailsService.loadUserByUsername(username);
+        }
+
+        CustomUserDetails principal = fromClaims(claims);
+        return isStillValid(principal) ? principal : null;
+    }
+
+    private boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(JwtTokenProvider.CLAIM_PRINCIPAL_ID) != null
+                && claims.get(JwtTokenProvider.CLAIM_PRINCIPAL_TYPE) != null
+                && claims.get(JwtTokenProvider.CLAIM_ROLES) != null;
+    }
+
+    private CustomUserDetails fromClaims(Claims claims) {
+        Long id = claims.get(JwtTokenProvider.CLAIM_PRINCIPAL_ID, Number.class).longValue();
+        PrincipalType type = PrincipalType.valueOf(claims.get(JwtTokenProvider.CLAIM_PRINCIPAL_TYPE, String.class));
+        String email = claims.get(JwtTokenProvider.CLAIM_EMAIL, String.class);
+        Collection<?> rawRoles = claims.get(JwtTokenProvider.CLAIM_ROLES, List.class);
+        List<String> roleNames = rawRoles.stream().map(String::valueOf).toList();
+        return CustomUserDetails.fromClaims(id, type, claims.getSubject(), email, roleNames);
+    }
+
+    // Safety valve: confirm the identity against the database at most once per interval
+    private boolean isStillValid(CustomUserDetails principal) {
+        if (recheckIntervalMillis <= 0) {
+            return true;
+        }
+        String key = principal.getType() + ":" + principal.getId();
+        long now = System.currentTimeMillis();
+        Long verifiedAt = lastVerified.get(key);
+        if (verifiedAt != null && now - verifiedAt < recheckIntervalMillis) {
+            return true;
+        }
+
+        boolean valid;
+        try {
+            UserDetails stored = userDetailsService.loadUserByUsername(principal.getUsername());
+            valid = stored instanceof CustomUserDetails details
+                    && principal.getId().equals(details.getId())
+                    && principal.getType() == details.getType()
+                    && !details.isDeleted()
+                    && details.getAccountStatus() != null
+                    && Boolean.TRUE.equals(details.getAccountStatus().getIsActive());
+        } catch (UsernameNotFoundException ex) {
+            valid = false;
+        }
+
+        if (!valid) {
+            log.warn("Stateless principal {} failed its database re-check", key);
+            lastVerified.remove(key);
+            return false;
+        }
+        if (lastVerified.size() >= MAX_TRACKED_PRINCIPALS) {
+            lastVerified.values().removeIf(time -> now - time >= recheckIntervalMillis);
+        }
+        lastVerified.put(key, now);
+        return true;
+    }
+}
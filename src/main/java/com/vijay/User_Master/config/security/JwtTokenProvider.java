@@ -1,28 +1,62 @@
 package com.vijay.User_Master.config.security;
 
 
+import com.vijay.User_Master.Helper.ExpiringCache;
+import com.vijay.User_Master.Helper.TokenHashUtil;
 import com.vijay.User_Master.exceptions.UserAlreadyExistsException;
+import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
+import com.vijay.User_Master.exceptions.exception.TokenExpiredException;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
+    // Claims carried for stateless authentication, see JwtPrincipalResolver
+    public static final String CLAIM_PRINCIPAL_ID = "pid";
+    public static final String CLAIM_PRINCIPAL_TYPE = "ptype";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLES = "roles";
 
-    @Value("${app-jwt-expiration-milliseconds}")
-    private long jwtExpirationDate;
+    private final long jwtExpirationDate;
 
-    private Object principal;
+    // Built once: the parser resolves the verification key by kid from the key ring
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+
+    // SHA-256(token) -> claims of a token that already passed signature verification
+    private final ExpiringCache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(JwtKeyRing keyRing,
+                            @Value("${app-jwt-expiration-milliseconds}") long jwtExpirationDate,
+                            @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+                            @Value("${app.jwt.verified-cache.ttl-seconds:300}") long verifiedCacheTtlSeconds) {
+        this.jwtExpirationDate = jwtExpirationDate;
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // The header must name a known key and that key's algorithm (no alg switching)
+                        JwtKeyRing.KeyEntry entry = keyRing.verifierFor(header.getKeyId());
+                        if (entry == null || !entry.algorithm().getValue().equals(header.getAlgorithm())) {
+                            throw new MalformedJwtException("Unknown JWT key id or algorithm");
+                        }
+                        return entry.verificationKey();
+                    }
+                })
+                .build();
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize, verifiedCacheTtlSeconds * 1000);
+    }
 
     // Generate JWT token
     public String generateToken(Authentication authentication) {
@@ -30,40 +64,80 @@ public class JwtTokenProvider {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
 
-        return Jwts.builder()
+        JwtKeyRing.KeyEntry signer = keyRing.active();
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signer.kid())
+                .setId(UUID.randomUUID().toString()) // jti, used for revocation (TokenDenylist)
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(expireDate)
-                .signWith(key())
+                .setExpiration(expireDate);
+
+        if (authentication.getPrincipal() instanceof CustomUserDetails details && details.getType() != null) {
+            List<String> roleNames = details.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList();
+            builder.claim(CLAIM_PRINCIPAL_ID, details.getId())
+                    .claim(CLAIM_PRINCIPAL_TYPE, details.getType().name())
+                    .claim(CLAIM_EMAIL, details.getEmail())
+                    .claim(CLAIM_ROLES, roleNames);
+        }
+
+        return builder
+                .signWith(signer.signingKey(), signer.algorithm())
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecret)
-        );
+    /**
+     * Verify the token signature and expiry and return its claims in one pass.
+     * Recently verified tokens are served from a bounded cache until they expire.
+     *
+     * @throws TokenExpiredException if the token is expired
+     * @throws InvalidTokenException if the token is malformed or the signature does not match
+     */
+    public Claims parseAndValidate(String token) {
+        String cacheKey = TokenHashUtil.sha256(token);
+        Claims cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException ex) {
+            throw new TokenExpiredException("JWT token expired");
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new InvalidTokenException("Invalid JWT token");
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokens.put(cacheKey, claims, expiration.getTime());
+        }
+        return claims;
     }
 
     // Get username from JWT token
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseAndValidate(token).getSubject();
+    }
+
+    // Get all verified claims from JWT token
+    public Claims getClaims(String token) {
+        return parseAndValidate(token);
     }
 
     // Validate JWT token
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parse(token);
+            parseAndValidate(token);
             return true;
-        } catch (JwtException ex) {
+        } catch (InvalidTokenException | TokenExpiredException ex) {
             throw new UserAlreadyExistsException("Invalid JWT token");
         }
     }
+
+    public ExpiringCache<String, Claims> getVerifiedTokenCache() {
+        return verifiedTokens;
+    }
 }
@@ -0,0 +1,183 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.exceptions.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failed-login throttling per username and per client IP.
+ *
+ * Every failure increments the counters of both keys. Once a key has more than
+ * {@code free-attempts} failures it is blocked for base-delay * 2^(excess - 1), capped at
+ * max-delay. Counters halve for every full window without a new failure, so a key
+ * recovers on its own. {@link #checkAllowed} runs before authentication, so a blocked
+ * attempt costs no database query and no BCrypt work.
+ *
+ * Updates of one key are serialized on one of a fixed set of lock stripes. The number of
+ * tracked keys is capped: when the cap is reached, decayed keys are dropped first, then
+ * the least recently failed unblocked ones. Metrics: auth.login.throttle.tracked,
+ * auth.login.throttle.failures, auth.login.throttle.rejected and auth.login.throttle.evictions.
+ */
+@Component
+@Log4j2
+public class LoginAttemptThrottle {
+
+    private static final class Attempts {
+        int failures;
+        long lastFailureAt;
+        long blockedUntil;
+    }
+
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final Object[] stripes;
+
+    private final int freeAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long windowMillis;
+    private final int maxKeys;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LoginAttemptThrottle(MeterRegistry registry,
+                                @Value("${app.auth.login-throttle.free-attempts:5}") int freeAttempts,
+                                @Value("${app.auth.login-throttle.base-delay-seconds:1}") long baseDelaySeconds,
+                                @Value("${app.auth.login-throttle.max-delay-seconds:900}") long maxDelaySeconds,
+                                @Value("${app.auth.login-throttle.window-minutes:15}") long windowMinutes,
+                                @Value("${app.auth.login-throttle.max-keys:100000}") int maxKeys,
+                                @Value("${app.auth.login-throttle.stripes:64}") int stripeCount) {
+        this.freeAttempts = freeAttempts;
+        this.baseDelayMillis = TimeUnit.SECONDS.toMillis(baseDelaySeconds);
+        this.maxDelayMillis = TimeUnit.SECONDS.toMillis(maxDelaySeconds);
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.maxKeys = maxKeys;
+        this.stripes = new Object[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+
+        Gauge.builder("auth.login.throttle.tracked", attempts, Map::size).register(registry);
+        FunctionCounter.builder("auth.login.throttle.failures", failures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("auth.login.throttle.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("auth.login.throttle.evictions", evictions, LongAdder::sum).register(registry);
+    }
+
+    /**
+     * @throws TooManyLoginAttemptsException if the username or the client IP is currently blocked
+     */
+    public void checkAllowed(String usernameOrEmail, String clientIp) {
+        long now = System.currentTimeMillis();
+        long waitMillis = Math.max(remainingBlock(userKey(usernameOrEmail), now), remainingBlock(ipKey(clientIp), now));
+        if (waitMillis > 0) {
+            rejected.increment();
+            throw new TooManyLoginAttemptsException(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999)));
+        }
+    }
+
+    public void onFailure(String usernameOrEmail, String clientIp) {
+        failures.increment();
+        long now = System.currentTimeMillis();
+        recordFailure(userKey(usernameOrEmail), now);
+        recordFailure(ipKey(clientIp), now);
+    }
+
+    // Only the username is cleared: one valid account must not reset the counter of a stuffing IP
+    public void onSuccess(String usernameOrEmail) {
+        String key = userKey(usernameOrEmail);
+        if (key != null) {
+            attempts.remove(key);
+        }
+    }
+
+    private long remainingBlock(String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        Attempts entry = attempts.get(key);
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (stripeFor(key)) {
+            return Math.max(0, entry.blockedUntil - now);
+        }
+    }
+
+    private void recordFailure(String key, long now) {
+        if (key == null) {
+            return;
+        }
+        if (attempts.size() >= maxKeys && !attempts.containsKey(key)) {
+            makeRoom(now);
+        }
+        synchronized (stripeFor(key)) {
+            Attempts entry = attempts.computeIfAbsent(key, k -> new Attempts());
+            entry.failures = decayed(entry, now) + 1;
+            entry.lastFailureAt = now;
+            int excess = entry.failures - freeAttempts;
+            if (excess > 0) {
+                long delay = baseDelayMillis << Math.min(excess - 1, 30);
+                entry.blockedUntil = now + Math.min(delay, maxDelayMillis);
+                log.warn("Login throttled for {} after {} failures", key, entry.failures);
+            }
+        }
+    }
+
+    // Failures halve for every full window since the last failure
+    private int decayed(Attempts entry, long now) {
+        if (entry.failures == 0 || windowMillis <= 0) {
+            return entry.failures;
+        }
+        long windows = (now - entry.lastFailureAt) / windowMillis;
+        return windows >= 31 ? 0 : entry.failures >> windows;
+    }
+
+    private synchronized void makeRoom(long now) {
+        if (attempts.size() < maxKeys) {
+            return;
+        }
+        int before = attempts.size();
+        attempts.entrySet().removeIf(e -> e.getValue().blockedUntil <= now && decayed(e.getValue(), now) == 0);
+
+        int target = (int) (maxKeys * 0.9);
+        long cutoff = now - windowMillis;
+        Iterator<Map.Entry<String, Attempts>> it = attempts.entrySet().iterator();
+        while (attempts.size() > target && it.hasNext()) {
+            Attempts entry = it.next().getValue();
+            if (entry.blockedUntil <= now && entry.lastFailureAt < cutoff) {
+                it.remove();
+            }
+        }
+        it = attempts.entrySet().iterator();
+        while (attempts.size() > target && it.hasNext()) {
+            if (it.next().getValue().blockedUntil <= now) {
+                it.remove();
+            }
+        }
+        evictions.add(Math.max(0, before - attempts.size()));
+    }
+
+    private Object stripeFor(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+    }
+
+    private static String userKey(String usernameOrEmail) {
+        return usernameOrEmail == null || usernameOrEmail.isBlank() ? null : "u:" + usernameOrEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String clientIp) {
+        return clientIp == null || clientIp.isBlank() ? null : "ip:" + clientIp;
+    }
+}
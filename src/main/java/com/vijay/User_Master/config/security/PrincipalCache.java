@@ -0,0 +1,76 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.Helper.ExpiringCache;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.event.RoleChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Size- and TTL-bounded cache of principal snapshots, keyed by the username or email
+ * they were looked up with.
+ *
+ * Entries are evicted after the transaction that changed the identity commits
+ * (see {@link IdentityChangedEvent}), so the TTL only bounds staleness for changes
+ * made outside this application. Metrics are published under {@code auth.principal.cache.*}.
+ *
+ * Names that resolved to nobody are remembered for a short negative TTL, so repeated
+ * logins or tokens for unknown accounts do not reach the database; any identity change
+ * clears them, since it may have created the missing name ({@code auth.principal.missing.*}).
+ * A role change ({@link RoleChangedEvent}) may alter the authorities of any principal and
+ * clears the whole cache.
+ */
+@Component
+@Log4j2
+public class PrincipalCache {
+
+    private final ExpiringCache<String, CustomUserDetails> cache;
+    private final ExpiringCache<String, Boolean> missing;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${app.auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${app.auth.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${app.auth.principal-cache.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        this.cache = new ExpiringCache<>(maxSize, ttlSeconds * 1000);
+        this.cache.registerMetrics(meterRegistry, "auth.principal.cache");
+        this.missing = new ExpiringCache<>(maxSize, negativeTtlSeconds * 1000);
+        this.missing.registerMetrics(meterRegistry, "auth.principal.missing");
+    }
+
+    public CustomUserDetails get(String usernameOrEmail) {
+        return cache.get(usernameOrEmail);
+    }
+
+    public void put(String usernameOrEmail, CustomUserDetails principal) {
+        cache.put(usernameOrEmail, principal);
+    }
+
+    public boolean isKnownMissing(String usernameOrEmail) {
+        return missing.get(usernameOrEmail) != null;
+    }
+
+    public void putMissing(String usernameOrEmail) {
+        missing.put(usernameOrEmail, Boolean.TRUE);
+    }
+
+    public void evictAll() {
+        cache.clear();
+        missing.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        log.debug("Role {} changed, evicting all cached principals", event.roleId());
+        evictAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIdentityChanged(IdentityChangedEvent event) {
+        log.debug("Evicting cached principals for {} {}", event.type(), event.ids());
+        cache.invalidateIf((key, principal) -> event.affects(principal.getType(), principal.getId()));
+        missing.clear();
+    }
+}
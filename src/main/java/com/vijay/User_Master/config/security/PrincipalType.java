@@ -0,0 +1,10 @@
+package com.vijay.User_Master.config.security;
+
+/**
+ * Which table an authenticated principal lives in.
+ * Users and workers share the login flow but are stored separately.
+ */
+public enum PrincipalType {
+    USER,
+    WORKER
+}
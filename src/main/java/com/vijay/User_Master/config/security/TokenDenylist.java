@@ -0,0 +1,89 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.Helper.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, keyed by their jti.
+ *
+ * A Bloom filter sits in front of the exact jti -> expiry map, so the common case (token
+ * not revoked) is answered by a few bit reads without touching the map. Entries are only
+ * needed until the token expires: a periodic rebuild drops them and replaces the filter,
+ * which also clears its accumulated false positives. Revocations are kept in memory, so
+ * they do not survive a restart and are not shared between instances.
+ *
+ * Metrics: auth.jwt.denylist.size, auth.jwt.denylist.revoked and auth.jwt.denylist.false_positives.
+ */
+@Component
+@Log4j2
+public class TokenDenylist {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+
+    private final Counter revokedCounter;
+    private final Counter falsePositives;
+
+    public TokenDenylist(MeterRegistry registry,
+                         @Value("${app.jwt.denylist.expected-entries:100000}") int expectedEntries,
+                         @Value("${app.jwt.denylist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+
+        Gauge.builder("auth.jwt.denylist.size", revoked, Map::size).register(registry);
+        this.revokedCounter = Counter.builder("auth.jwt.denylist.revoked").register(registry);
+        this.falsePositives = Counter.builder("auth.jwt.denylist.false_positives").register(registry);
+    }
+
+    // Revocations and rebuilds share the lock so a rebuild can't lose a concurrent revocation
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(jti, expiresAtMillis);
+        filter.put(jti);
+        revokedCounter.increment();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        if (before != revoked.size()) {
+            log.debug("Token denylist rebuilt: {} expired entries dropped, {} remain", before - revoked.size(), revoked.size());
+        }
+    }
+}
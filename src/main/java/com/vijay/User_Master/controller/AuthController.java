@@ -3,10 +3,12 @@ package com.vijay.User_Master.controller;
 import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.ExceptionUtil;
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.JwtAuthenticationFilter;
 import com.vijay.User_Master.config.security.model.LoginJWTResponse;
 import com.vijay.User_Master.config.security.model.LoginRequest;
+import com.vijay.User_Master.dto.RefreshTokenRequest;
 import com.vijay.User_Master.dto.UserRequest;
-import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.WorkerResponse;
 import com.vijay.User_Master.dto.form.AvailabilityResponse;
 import com.vijay.User_Master.dto.form.ChangePasswordForm;
 
@@ -45,11 +47,23 @@ public class AuthController {
      * @return A ResponseEntity containing the JWT response or an error message.
      */
     @PostMapping(value = {"/login", "/signin"})
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        LoginJWTResponse login = authService.login(request);
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        LoginJWTResponse login = authService.login(request, CommonUtils.getClientIp(httpRequest));
         return ExceptionUtil.createBuildResponse(login, HttpStatus.OK);
     }
 
+    /**
+     * Logout: revokes the presented access token and deletes the refresh token if one is sent.
+     *
+     * @param body optional body with the refresh token of this session.
+     * @return A ResponseEntity with a confirmation message.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshTokenRequest body, HttpServletRequest httpRequest) {
+        authService.logout(JwtAuthenticationFilter.resolveToken(httpRequest), body != null ? body.getRefreshToken() : null);
+        return ExceptionUtil.createBuildResponseMessage("Logged out successfully", HttpStatus.OK);
+    }
+
     /**
      * Endpoint for registering an admin user.
      *
@@ -70,11 +84,11 @@ public class AuthController {
      * Endpoint for registering a normal user (worker).
      *
      * @param request The user request data.
-     * @return A ResponseEntity containing the UserResponse or an error message.
+     * @return A ResponseEntity containing the WorkerResponse or an error message.
      */
     @PostMapping(value = "/register/worker", consumes = "application/json", produces = "application/json")
     public ResponseEntity<?> registerWorker(@RequestBody UserRequest request) {
-        UserResponse response = authService.registerForNormalUser(request);
+        WorkerResponse response = authService.registerForNormalUser(request);
         return ExceptionUtil.createBuildResponse(response, HttpStatus.OK);
 
 
@@ -2,6 +2,7 @@ package com.vijay.User_Master.controller;
 
 import com.vijay.User_Master.Helper.ExceptionUtil;
 
+import com.vijay.User_Master.config.security.JwtKeyRing;
 import com.vijay.User_Master.dto.*;
 
 import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
@@ -17,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 
 @RestController
 @RequestMapping("/api/v1/tokens")
@@ -25,6 +28,13 @@ import org.springframework.web.bind.annotation.*;
 public class RefreshTokenController {
 
     private final RefreshTokenService tokenRefreshService;
+    private final JwtKeyRing jwtKeyRing;
+
+    // Public keys (JWK set) of the asymmetric signing keys, for services that verify our tokens locally
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> publicKeys() {
+        return ResponseEntity.ok(jwtKeyRing.publicJwks());
+    }
 
     @PostMapping("/regenerate-token")
     public ResponseEntity<?> regenerateToken(@RequestBody RefreshTokenRequest request) {
@@ -4,11 +4,19 @@ import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.ExceptionUtil;
 
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.BulkActionRequest;
+import com.vijay.User_Master.dto.BulkActionResult;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.DataFormat;
 import com.vijay.User_Master.dto.ImageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.SliceResponse;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
 import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.service.BulkAccountService;
+import com.vijay.User_Master.service.ExportService;
 import com.vijay.User_Master.service.FileService;
 import com.vijay.User_Master.service.UserService;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,15 +29,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -42,6 +54,8 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final ExportService exportService;
+    private final BulkAccountService bulkAccountService;
 
     private FileService fileService;
     private ModelMapper mapper;
@@ -67,6 +81,7 @@ public class UserController {
            Active users	/api/users/filter?isDeleted=false&isActive=true
            Deleted users	/api/users/filter?isDeleted=true
            Expired users	/api/users/filter?isDeleted=false&isActive=false
+           Without total	/api/users/filter?includeTotal=false   (hasNext only, for infinite scroll)
     *
     * */
     @GetMapping("/filter")
@@ -77,18 +92,79 @@ public class UserController {
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) Boolean isDeleted,
             @RequestParam(required = false) Boolean isActive,
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "true") boolean includeTotal
     ) {
         log.info("Fetching users with filters - isDeleted: {}, isActive: {}, page: {}, size: {}", isDeleted, isActive, pageNumber, pageSize);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
+        if (!includeTotal) {
+            // Infinite scroll: hasNext only, no COUNT query
+            SliceResponse<UserResponse> slice = userService.getUsersSlice(isDeleted, isActive, keyword, pageable);
+            return ExceptionUtil.createBuildResponse(slice, HttpStatus.OK);
+        }
+
         Page<UserResponse> userPage = userService.getUsersWithFilter(isDeleted, isActive,keyword, pageable);
 
         return ExceptionUtil.createBuildResponse(userPage, HttpStatus.OK);
     }
 
+    /*
+     *  Full export, same filters as /filter, streamed while it is read (503 while too many exports run):
+     *      /api/users/export?format=CSV&isDeleted=false
+     *      /api/users/export?format=NDJSON&keyword=vijay
+     * */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            @RequestParam(required = false) Boolean isDeleted,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String keyword
+    ) {
+        StreamingResponseBody body = exportService.exportUsers(isDeleted, isActive, keyword, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users."
+                        + format.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
+    }
+
+    /*
+     *  Cursor (keyset) pagination, same filters as /filter:
+     *      First page   /api/users/scroll?sortBy=name&size=20&isActive=true
+     *      Next pages   /api/users/scroll?cursor=<nextCursor>&isActive=true
+     *  sortBy: id, name, username or email. The cursor carries the sort, filters must be repeated.
+     * */
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Boolean isDeleted,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String keyword
+    ) {
+        CursorPageResponse<UserResponse> page = userService.getUsersByCursor(
+                isDeleted, isActive, keyword, sortBy, sortDir, cursor, size);
+        return ExceptionUtil.createBuildResponse(page, HttpStatus.OK);
+    }
+
+    /*
+     *  Typeahead for the admin UI, matches the start of username, email or any word of the name:
+     *      /api/users/autocomplete?q=rav&limit=10   (limit is capped at 20)
+     * */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocompleteUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<AutocompleteSuggestion> suggestions = userService.autocomplete(q, limit);
+        return ExceptionUtil.createBuildResponse(suggestions, HttpStatus.OK);
+    }
+
     /**
      * Get all users
      *  api/users?isDeleted=false&isActive=true
@@ -194,6 +270,35 @@ public class UserController {
         return ExceptionUtil.createBuildResponse("User restored", HttpStatus.OK);
     }
 
+    /*
+     *  Bulk actions by ids or by the /filter filters, one set-based UPDATE per chunk:
+     *      POST /api/users/bulk/status?isActive=false   {"ids":[3,4,5]}
+     *      POST /api/users/bulk/soft-delete            {"filter":{"keyword":"test"}}
+     *      POST /api/users/bulk/restore                {"filter":{"isDeleted":true}}
+     *  Admins only; the caller's own account is never selected and a filter needs at least one criterion.
+     *  The response counts matched and changed rows.
+     * */
+    @PostMapping("/bulk/status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestParam Boolean isActive, @RequestBody BulkActionRequest request) {
+        log.info("Bulk account status update to active={}", isActive);
+        BulkActionResult result = bulkAccountService.updateUserStatus(request, isActive);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/bulk/soft-delete")
+    public ResponseEntity<?> bulkSoftDelete(@RequestBody BulkActionRequest request) {
+        log.info("Bulk soft delete of users");
+        BulkActionResult result = bulkAccountService.softDeleteUsers(request);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/bulk/restore")
+    public ResponseEntity<?> bulkRestore(@RequestBody BulkActionRequest request) {
+        log.info("Bulk restore of users");
+        BulkActionResult result = bulkAccountService.restoreUsers(request);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}/permanent")
     public ResponseEntity<?> permanentlyDeleteUser(@PathVariable Long id) {
         log.info("Permanently deleting user ID: {}", id);
@@ -1,9 +1,20 @@
 package com.vijay.User_Master.controller;
 
 import com.vijay.User_Master.Helper.ExceptionUtil;
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.BulkActionRequest;
+import com.vijay.User_Master.dto.BulkActionResult;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.DataFormat;
 import com.vijay.User_Master.dto.FavouriteEntryResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.PurgeJobResponse;
+import com.vijay.User_Master.dto.SliceResponse;
+import com.vijay.User_Master.dto.WorkerImportReport;
 import com.vijay.User_Master.dto.WorkerResponse;
+import com.vijay.User_Master.service.BulkAccountService;
+import com.vijay.User_Master.service.ExportService;
+import com.vijay.User_Master.service.WorkerImportService;
 import com.vijay.User_Master.service.WorkerUserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
@@ -13,11 +24,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @RestController
@@ -26,6 +41,9 @@ import java.util.List;
 public class WorkerUserController {
 
     private final WorkerUserService workerUserService;
+    private final WorkerImportService workerImportService;
+    private final ExportService exportService;
+    private final BulkAccountService bulkAccountService;
 
     /**
      * 🛠️ Worker Filtering API by SuperUser ID
@@ -50,6 +68,9 @@ public class WorkerUserController {
      *
      * ✅ Support pagination (default page=0, size=10):
      *     GET /api/v1/workers/superuser/{superUserId}/advanced-filter?page=1&size=5
+     *
+     * ✅ Infinite scroll, hasNext only and no COUNT query:
+     *     GET /api/v1/workers/superuser/{superUserId}/advanced-filter?includeTotal=false
      */
     @GetMapping("/superuser/{superUserId}/advanced-filter")
     public ResponseEntity<?> getWorkersWithAdvancedFilter(
@@ -58,15 +79,135 @@ public class WorkerUserController {
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdOn").descending());
+        if (!includeTotal) {
+            SliceResponse<WorkerResponse> slice = workerUserService.getWorkersSlice(
+                    superUserId, isDeleted, isActive, keyword, pageable);
+            return ExceptionUtil.createBuildResponse(slice, HttpStatus.OK);
+        }
         Page<WorkerResponse> response = workerUserService.getWorkersWithFilter(
                 superUserId, isDeleted, isActive, keyword, pageable
         );
         return ExceptionUtil.createBuildResponse(response, HttpStatus.OK);
     }
 
+    /**
+     * Cursor (keyset) pagination over a super user's workers, same filters as advanced-filter.
+     * Deep pages cost the same as the first one, use this instead of page numbers for large tenants.
+     *
+     *     GET /api/v1/workers/superuser/{superUserId}/scroll?sortBy=id&sortDir=desc&size=20
+     *     GET /api/v1/workers/superuser/{superUserId}/scroll?cursor={nextCursor}&isActive=true
+     *
+     * sortBy: id, name, username or email (id desc lists the newest workers first).
+     */
+    @GetMapping("/superuser/{superUserId}/scroll")
+    public ResponseEntity<?> scrollWorkers(
+            @PathVariable Long superUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) Boolean isDeleted,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String keyword
+    ) {
+        CursorPageResponse<WorkerResponse> response = workerUserService.getWorkersByCursor(
+                superUserId, isDeleted, isActive, keyword, sortBy, sortDir, cursor, size);
+        return ExceptionUtil.createBuildResponse(response, HttpStatus.OK);
+    }
+
+    /**
+     * Typeahead over one super user's workers (username, email or any word of the name).
+     *
+     *     GET /api/v1/workers/superuser/{superUserId}/autocomplete?q=rav&limit=10
+     *
+     * limit is capped at 20, soft-deleted workers are not suggested.
+     */
+    @GetMapping("/superuser/{superUserId}/autocomplete")
+    public ResponseEntity<?> autocompleteWorkers(
+            @PathVariable Long superUserId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<AutocompleteSuggestion> suggestions = workerUserService.autocomplete(superUserId, q, limit);
+        return ExceptionUtil.createBuildResponse(suggestions, HttpStatus.OK);
+    }
+
+    /**
+     * Full export of a super user's workers, same filters as advanced-filter, streamed while it is read:
+     *
+     *     GET /api/v1/workers/superuser/{superUserId}/export?format=CSV&isActive=true
+     *     GET /api/v1/workers/superuser/{superUserId}/export?format=NDJSON&keyword=karan
+     *
+     * 503 while too many exports are running.
+     */
+    @GetMapping("/superuser/{superUserId}/export")
+    public ResponseEntity<StreamingResponseBody> exportWorkers(
+            @PathVariable Long superUserId,
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            @RequestParam(required = false) Boolean isDeleted,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String keyword
+    ) {
+        StreamingResponseBody body = exportService.exportWorkers(superUserId, isDeleted, isActive, keyword, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workers-" + superUserId + "."
+                        + format.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk actions on a super user's workers, by ids or by the advanced-filter filters:
+     *
+     *     POST /api/v1/workers/superuser/{superUserId}/bulk/status?isActive=false   {"ids":[12,13,14]}
+     *     POST /api/v1/workers/superuser/{superUserId}/bulk/soft-delete   {"filter":{"isActive":false}}
+     *     POST /api/v1/workers/superuser/{superUserId}/bulk/restore       {"filter":{"keyword":"karan"}}
+     *
+     * Only the caller's own workers are changed; the response counts matched and changed rows.
+     */
+    @PostMapping("/superuser/{superUserId}/bulk/status")
+    public ResponseEntity<?> bulkUpdateStatus(@PathVariable Long superUserId,
+                                              @RequestParam Boolean isActive,
+                                              @RequestBody BulkActionRequest request) {
+        BulkActionResult result = bulkAccountService.updateWorkerStatus(superUserId, request, isActive);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/superuser/{superUserId}/bulk/soft-delete")
+    public ResponseEntity<?> bulkSoftDelete(@PathVariable Long superUserId, @RequestBody BulkActionRequest request) {
+        BulkActionResult result = bulkAccountService.softDeleteWorkers(superUserId, request);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
+    @PostMapping("/superuser/{superUserId}/bulk/restore")
+    public ResponseEntity<?> bulkRestore(@PathVariable Long superUserId, @RequestBody BulkActionRequest request) {
+        BulkActionResult result = bulkAccountService.restoreWorkers(superUserId, request);
+        return ExceptionUtil.createBuildResponse(result, HttpStatus.OK);
+    }
+
+    /**
+     * Bulk creation of workers owned by the current user, streamed row by row.
+     *
+     *     POST /api/v1/workers/import   Content-Type: text/csv
+     *         name,username,email,password,phoNo,about
+     *         Ravi Kumar,ravi,ravi@example.com,secret123,9876543210,
+     *
+     *     POST /api/v1/workers/import   Content-Type: application/x-ndjson
+     *         {"name":"Ravi Kumar","username":"ravi","email":"ravi@example.com","password":"secret123"}
+     *
+     * Valid rows are committed in chunks; the response reports the rejected rows by line.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importWorkers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) {
+        WorkerImportReport report = workerImportService.importWorkers(body, DataFormat.fromContentType(contentType));
+        return ExceptionUtil.createBuildResponse(report, HttpStatus.OK);
+    }
+
     /**
      * Get filtered workers created by a specific super user.
      *
@@ -143,10 +284,16 @@ public class WorkerUserController {
         return ExceptionUtil.createBuildResponse(pages, HttpStatus.OK);
     }
 
+    // Empties the whole recycle bin in the background, poll the returned job for progress
     @DeleteMapping("/recycle/delete-all")
-    public ResponseEntity<?> deleteAllUserSuperUserId(@PageableDefault(size = 10, sort = "name") Pageable pageable) {
-        workerUserService.emptyRecycleBin(pageable);
-        return ExceptionUtil.createBuildResponse("Deleted All item form Recycle Bin..! now Empty Recycle Bin. !", HttpStatus.OK);
+    public ResponseEntity<?> deleteAllUserSuperUserId() {
+        PurgeJobResponse job = workerUserService.emptyRecycleBin();
+        return ExceptionUtil.createBuildResponse(job, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/recycle/purge-jobs/{jobId}")
+    public ResponseEntity<?> getPurgeJob(@PathVariable Long jobId) {
+        return ExceptionUtil.createBuildResponse(workerUserService.getPurgeJob(jobId), HttpStatus.OK);
     }
 
     @GetMapping
@@ -0,0 +1,24 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One autocomplete hit, just enough for the admin UI to render the option
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AutocompleteSuggestion {
+
+    private Long id;
+
+    private String name;
+
+    private String username;
+
+    private String email;
+}
@@ -0,0 +1,38 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/*
+ *  Rows a bulk action applies to: either explicit ids, or every row matching a filter
+ *  (the same keyword / isDeleted / isActive filters as the list endpoints). Exactly one is set.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkActionRequest {
+
+    private List<Long> ids;
+
+    private Filter filter;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Filter {
+
+        private String keyword;
+
+        private Boolean isDeleted;
+
+        private Boolean isActive;
+    }
+}
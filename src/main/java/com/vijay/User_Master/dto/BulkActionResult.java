@@ -0,0 +1,22 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// matched: rows selected (owned, and in the state the action applies to); affected: rows the UPDATEs changed
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkActionResult {
+
+    private String action;
+
+    private int matched;
+
+    private int affected;
+}
@@ -0,0 +1,20 @@
+package com.vijay.User_Master.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One page of a cursor (keyset) listing, pass nextCursor back to read the following page
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+    private boolean hasNext;
+
+}
@@ -0,0 +1,24 @@
+package com.vijay.User_Master.dto;
+
+import org.springframework.http.MediaType;
+
+// Row formats of bulk imports and exports: CSV with a header row, or one JSON object per line
+public enum DataFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(NDJSON.mediaType) ? NDJSON : CSV;
+    }
+}
@@ -17,5 +17,7 @@ public class PageableResponse<T> {
     private long totalElements;
     private int totalPages;
     private boolean lastPage;
+    // totalElements comes from a long-lived cached count, see ListCountCache
+    private boolean totalApproximate;
 
 }
\ No newline at end of file
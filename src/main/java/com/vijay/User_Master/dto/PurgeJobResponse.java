@@ -0,0 +1,34 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Progress of a recycle-bin purge, see GET /api/v1/workers/recycle/purge-jobs/{jobId}
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PurgeJobResponse {
+
+    private Long jobId;
+
+    private String type;
+
+    private String status;
+
+    private long deleted;
+
+    private String error;
+
+    private LocalDateTime createdOn;
+
+    private LocalDateTime startedOn;
+
+    private LocalDateTime finishedOn;
+}
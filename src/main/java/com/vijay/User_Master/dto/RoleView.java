@@ -0,0 +1,14 @@
+package com.vijay.User_Master.dto;
+
+import com.vijay.User_Master.entity.Role;
+
+/*
+ *  Immutable role held by RoleRegistry; lookups hand these out instead of managed entities.
+ */
+public record RoleView(Long id, String name, boolean active, boolean deleted) {
+
+    // A detached entity carrying only the id, enough to link the role to a user or worker
+    public Role toEntity() {
+        return new Role(id, name, active, deleted);
+    }
+}
@@ -0,0 +1,20 @@
+package com.vijay.User_Master.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Page without a total (no COUNT query), for infinite-scroll clients
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SliceResponse<T> {
+
+    private List<T> content;
+    private int pageNumber;
+    private int pageSize;
+    private boolean hasNext;
+
+}
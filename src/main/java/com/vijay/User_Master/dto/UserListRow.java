@@ -0,0 +1,20 @@
+package com.vijay.User_Master.dto;
+
+import java.time.LocalDateTime;
+
+/*
+ *  List-page projection of a user, selected directly by the repository.
+ *  No password, about or association graph is loaded; roles come aggregated
+ *  in the same row, see RoleMapper.fromAggregate.
+ */
+public record UserListRow(Long id,
+                          String name,
+                          String username,
+                          String email,
+                          String phoNo,
+                          String imageName,
+                          boolean isDeleted,
+                          LocalDateTime deletedOn,
+                          Boolean isActive,
+                          String roles) {
+}
@@ -17,7 +17,6 @@ public class UserResponse {
     private String name;
     private String username;
     private String email;
-    private String password;
     private String phoNo;
     private String about;
     private String imageName;
@@ -0,0 +1,47 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a bulk worker import: counts plus the rejected rows (capped, see errorsTruncated)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WorkerImportReport {
+
+    private int totalRows;
+
+    private int imported;
+
+    private int failed;
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    // Set when the upload was not read to the end (row limit, overloaded hashing pool, unreadable body)
+    private String abortedReason;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+
+        // Line of the upload the row starts on, the CSV header is line 1
+        private long line;
+
+        private String username;
+
+        private String message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.vijay.User_Master.dto;
+
+import java.time.LocalDateTime;
+
+// List-page projection of a worker, same shape as UserListRow plus the account status id
+public record WorkerListRow(Long id,
+                            String name,
+                            String username,
+                            String email,
+                            String phoNo,
+                            String imageName,
+                            boolean isDeleted,
+                            LocalDateTime deletedOn,
+                            Integer accountStatusId,
+                            Boolean isActive,
+                            String roles) {
+}
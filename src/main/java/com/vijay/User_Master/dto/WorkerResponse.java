@@ -18,7 +18,6 @@ public class WorkerResponse {
     private String username;
 
     private String email;
-    private String password;
     private String phoNo;
 
     private String about;
@@ -1,6 +1,7 @@
 package com.vijay.User_Master.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.vijay.User_Master.config.IdGeneratorSeeder;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
@@ -13,8 +14,12 @@ import lombok.*;
 @Entity
 public class AccountStatus {
 
+    // Pooled like Worker.id, so a batch of new workers inserts its statuses in batches too
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_status_id")
+    @TableGenerator(name = "account_status_id", table = IdGeneratorSeeder.TABLE,
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "account_status",
+            allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Integer id;
 
     // Indicates whether the account is active or not
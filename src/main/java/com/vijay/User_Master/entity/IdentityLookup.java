@@ -0,0 +1,32 @@
+package com.vijay.User_Master.entity;
+
+import com.vijay.User_Master.config.security.PrincipalType;
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ *  Normalized username or e-mail -> the user or worker owning it, see IdentityLookupIndex.
+ *  The identifier is the primary key, so resolving a login name is one clustered-index
+ *  point lookup instead of `username = ? OR email = ?` on two tables.
+ */
+@Entity
+@Table(name = "identity_lookup",
+        indexes = @Index(name = "idx_identity_lookup_principal", columnList = "principal_type, principal_id"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class IdentityLookup {
+
+    @Id
+    @Column(length = 255)
+    private String identifier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "principal_type", nullable = false, length = 16)
+    private PrincipalType principalType;
+
+    @Column(name = "principal_id", nullable = false)
+    private Long principalId;
+}
@@ -0,0 +1,69 @@
+package com.vijay.User_Master.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+ *  A recycle-bin purge run by PurgeJobRunner. lastId is the highest worker id already
+ *  handled and is committed together with each deleted chunk, so an interrupted job
+ *  resumes right after its last chunk. The version guards against two runners
+ *  advancing the same job.
+ */
+@Entity
+@Table(name = "purge_job",
+        indexes = @Index(name = "idx_purge_job_status", columnList = "status"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PurgeJob {
+
+    public enum Type {
+        RECYCLE_BIN, // everything in one owner's recycle bin
+        RETENTION    // every worker deleted before the cutoff
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // createdBy of the purged workers, null for retention
+    private Long ownerId;
+
+    // Only workers deleted before this are purged, null for all
+    private LocalDateTime deletedBefore;
+
+    @Column(nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private long deleted;
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime createdOn;
+    private LocalDateTime startedOn;
+    private LocalDateTime finishedOn;
+}
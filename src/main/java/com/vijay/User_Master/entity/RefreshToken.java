@@ -6,7 +6,18 @@ import lombok.*;
 import java.time.Instant;
 
 
+/*
+ *  One row per session (device). Only the SHA-256 of the token is stored, the token
+ *  itself is returned to the client once and never persisted.
+ */
 @Entity
+@Table(name = "refresh_token",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_token_expiry", columnList = "expiry_date"),
+                @Index(name = "idx_refresh_token_user", columnList = "user_id, id"),
+                @Index(name = "idx_refresh_token_worker", columnList = "worker_id, id")
+        })
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -17,15 +28,16 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
-    private String token;
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
     private Instant expiryDate;
 
     private String username; // Added Username as Identifier
     private String email;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Worker worker;
 }
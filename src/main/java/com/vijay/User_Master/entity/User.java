@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -21,7 +22,23 @@ import java.util.Set;
 @Builder
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+// Keyset pagination indexes (sort column, id), see KeysetCursor; username and email are already unique
+@Table(name = "users",
+        indexes = {
+                @Index(name = "idx_users_name", columnList = "name, id"),
+                @Index(name = "idx_users_deleted_name", columnList = "is_deleted, name, id")
+        })
+/*
+ *  Fetch plans: everything is lazy, each use case names what it needs.
+ *  User.list: page queries, roles come in one batched select per page (@BatchSize),
+ *  a collection fetch here would make Hibernate paginate in memory.
+ *  User.detail: single user, auth principal and export (roles + status in one query).
+ */
+@NamedEntityGraph(name = "User.list", attributeNodes = @NamedAttributeNode("accountStatus"))
+@NamedEntityGraph(name = "User.detail", attributeNodes = {
+        @NamedAttributeNode("roles"),
+        @NamedAttributeNode("accountStatus")
+})
 public class User  {
 
     @Id
@@ -41,17 +58,18 @@ public class User  {
     private boolean isDeleted;
     private LocalDateTime deletedOn;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id")
     )
     private Set<Role> roles;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     private List<Worker> workers;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "status_id")
     private AccountStatus accountStatus;
 }
@@ -1,7 +1,9 @@
 package com.vijay.User_Master.entity;
 
+import com.vijay.User_Master.config.IdGeneratorSeeder;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -14,13 +16,29 @@ import java.util.Set;
 @Builder
 @AllArgsConstructor
 @Entity
-@Table(name = "workers")
+// Keyset pagination indexes, most listings are scoped to the owning super user (user_id)
+@Table(name = "workers",
+        indexes = {
+                @Index(name = "idx_workers_name", columnList = "name, id"),
+                @Index(name = "idx_workers_user_name", columnList = "user_id, name, id"),
+                @Index(name = "idx_workers_user_deleted_name", columnList = "user_id, is_deleted, name, id")
+        })
 @EntityListeners(AuditingEntityListener.class)
+// Fetch plans, same split as User: Worker.list for pages, Worker.detail for single rows, principal and export
+@NamedEntityGraph(name = "Worker.list", attributeNodes = @NamedAttributeNode("accountStatus"))
+@NamedEntityGraph(name = "Worker.detail", attributeNodes = {
+        @NamedAttributeNode("roles"),
+        @NamedAttributeNode("accountStatus")
+})
 public class Worker extends BaseModel {
 
 
+    // Pooled ids (one table round trip per 50 rows) so inserts can be batched, see IdGeneratorSeeder
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "workers_id")
+    @TableGenerator(name = "workers_id", table = IdGeneratorSeeder.TABLE,
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "workers",
+            allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long id;
     private String name;
     @Column(nullable = false, unique = true)
@@ -37,7 +55,8 @@ public class Worker extends BaseModel {
 
     private String imageName;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "workers_roles",
             joinColumns = @JoinColumn(name = "worker_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id")
@@ -48,7 +67,7 @@ public class Worker extends BaseModel {
     @JoinColumn(name="user_id",nullable = false)
     private User user;
 
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "status_id")
     private AccountStatus accountStatus;
 
@@ -0,0 +1,37 @@
+package com.vijay.User_Master.event;
+
+import com.vijay.User_Master.config.security.PrincipalType;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever a user or worker changes in a way that affects authentication:
+ * profile/credential updates, status changes, role assignment, soft delete or restore.
+ * Listeners use it to evict cached principals and keep in-memory indexes in sync.
+ *
+ * @param type which table the ids belong to
+ * @param ids  ids of the changed identities
+ */
+public record IdentityChangedEvent(PrincipalType type, Set<Long> ids) {
+
+    public IdentityChangedEvent {
+        ids = Set.copyOf(ids);
+    }
+
+    public static IdentityChangedEvent user(Long id) {
+        return new IdentityChangedEvent(PrincipalType.USER, Set.of(id));
+    }
+
+    public static IdentityChangedEvent worker(Long id) {
+        return new IdentityChangedEvent(PrincipalType.WORKER, Set.of(id));
+    }
+
+    public static IdentityChangedEvent workers(Collection<Long> ids) {
+        return new IdentityChangedEvent(PrincipalType.WORKER, Set.copyOf(ids));
+    }
+
+    public boolean affects(PrincipalType principalType, Long id) {
+        return type == principalType && ids.contains(id);
+    }
+}
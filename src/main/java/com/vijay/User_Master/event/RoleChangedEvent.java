@@ -0,0 +1,10 @@
+package com.vijay.User_Master.event;
+
+/**
+ * Published whenever a role is created, renamed, activated, deactivated or deleted.
+ * Listeners reload the role registry and drop principals whose authorities may have changed.
+ *
+ * @param roleId id of the changed role
+ */
+public record RoleChangedEvent(Long roleId) {
+}
@@ -7,6 +7,7 @@ import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
 import com.vijay.User_Master.exceptions.exception.TokenRefreshException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -73,6 +74,27 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<?> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        logger.warn("Shedding load: {}", ex.getMessage());
+        return ExceptionUtil.createErrorResponseMessage(
+                "Server is busy. Please try again shortly",
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<?> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex) {
+        logger.warn("Login throttled: {}", ex.getMessage());
+        ResponseEntity<?> response = ExceptionUtil.createErrorResponseMessage(
+                ex.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<?> handleUserAlreadyExistsException(UserAlreadyExistsException ex) {
         logger.error("User exists: {}", ex.getMessage());
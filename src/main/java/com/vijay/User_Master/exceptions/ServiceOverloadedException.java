@@ -0,0 +1,13 @@
+package com.vijay.User_Master.exceptions;
+
+// Raised when a bounded worker pool sheds load, mapped to 503 by GlobalExceptionHandler
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+
+    public ServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
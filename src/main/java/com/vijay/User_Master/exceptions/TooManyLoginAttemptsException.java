@@ -0,0 +1,15 @@
+package com.vijay.User_Master.exceptions;
+
+import lombok.Getter;
+
+// Login refused by LoginAttemptThrottle, mapped to 429 with a Retry-After header
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(long retryAfterSeconds) {
+        super("Too many failed login attempts. Try again in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
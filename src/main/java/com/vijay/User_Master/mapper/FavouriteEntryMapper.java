@@ -0,0 +1,18 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.FavouriteEntryResponse;
+import com.vijay.User_Master.entity.FavouriteEntry;
+
+public class FavouriteEntryMapper {
+
+    public static FavouriteEntryResponse toResponse(FavouriteEntry entry) {
+        if (entry == null) {
+            return null;
+        }
+        return FavouriteEntryResponse.builder()
+                .id(entry.getId())
+                .worker(WorkerMapper.toResponse(entry.getWorker()))
+                .userId(entry.getUserId())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.PurgeJobResponse;
+import com.vijay.User_Master.entity.PurgeJob;
+
+public class PurgeJobMapper {
+
+    public static PurgeJobResponse toResponse(PurgeJob job) {
+        if (job == null) {
+            return null;
+        }
+        return PurgeJobResponse.builder()
+                .jobId(job.getId())
+                .type(job.getType().name())
+                .status(job.getStatus().name())
+                .deleted(job.getDeleted())
+                .error(job.getError())
+                .createdOn(job.getCreatedOn())
+                .startedOn(job.getStartedOn())
+                .finishedOn(job.getFinishedOn())
+                .build();
+    }
+}
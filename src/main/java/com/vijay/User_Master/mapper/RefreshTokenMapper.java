@@ -0,0 +1,26 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.RefreshTokenDto;
+import com.vijay.User_Master.entity.RefreshToken;
+
+public class RefreshTokenMapper {
+
+    /*
+     *  Only the token hash is stored, so the plain token the client holds is passed in.
+     *  Owner ids come from the association proxies without loading the user / worker.
+     */
+    public static RefreshTokenDto toDto(RefreshToken refreshToken, String rawToken) {
+        if (refreshToken == null) {
+            return null;
+        }
+        return RefreshTokenDto.builder()
+                .id(refreshToken.getId())
+                .refreshToken(rawToken)
+                .expiryDate(refreshToken.getExpiryDate())
+                .username(refreshToken.getUsername())
+                .email(refreshToken.getEmail())
+                .userId(refreshToken.getUser() != null ? refreshToken.getUser().getId() : null)
+                .workerId(refreshToken.getWorker() != null ? refreshToken.getWorker().getId() : null)
+                .build();
+    }
+}
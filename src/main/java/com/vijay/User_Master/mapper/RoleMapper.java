@@ -0,0 +1,58 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.RoleResponse;
+import com.vijay.User_Master.dto.RoleView;
+import com.vijay.User_Master.entity.Role;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class RoleMapper {
+
+    public static RoleResponse toResponse(Role role) {
+        if (role == null) {
+            return null;
+        }
+        return RoleResponse.builder()
+                .id(role.getId())
+                .name(role.getName())
+                .isActive(role.isActive())
+                .isDeleted(role.isDeleted())
+                .build();
+    }
+
+    public static RoleResponse toResponse(RoleView role) {
+        if (role == null) {
+            return null;
+        }
+        return RoleResponse.builder()
+                .id(role.id())
+                .name(role.name())
+                .isActive(role.active())
+                .isDeleted(role.deleted())
+                .build();
+    }
+
+    /*
+     *  Roles aggregated by the list projections (UserRepository.ROLE_AGGREGATE),
+     *  each entry is "id:active:deleted:name".
+     */
+    public static Set<Role> fromAggregate(String aggregate) {
+        Set<Role> roles = new HashSet<>();
+        if (aggregate == null || aggregate.isEmpty()) {
+            return roles;
+        }
+        for (String entry : aggregate.split(",")) {
+            String[] parts = entry.split(":", 4);
+            if (parts.length == 4) {
+                roles.add(new Role(Long.valueOf(parts[0]), parts[3], "1".equals(parts[1]), "1".equals(parts[2])));
+            }
+        }
+        return roles;
+    }
+
+    // Response DTOs still expose the Role entities themselves, copied out of the persistent collection
+    static Set<Role> copyOf(Set<Role> roles) {
+        return roles == null ? null : new HashSet<>(roles);
+    }
+}
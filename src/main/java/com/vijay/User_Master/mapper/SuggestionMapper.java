@@ -0,0 +1,19 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.search.SearchIndexRow;
+
+public class SuggestionMapper {
+
+    public static AutocompleteSuggestion toSuggestion(SearchIndexRow row) {
+        if (row == null) {
+            return null;
+        }
+        return AutocompleteSuggestion.builder()
+                .id(row.id())
+                .name(row.name())
+                .username(row.username())
+                .email(row.email())
+                .build();
+    }
+}
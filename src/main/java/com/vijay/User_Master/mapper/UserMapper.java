@@ -0,0 +1,83 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.dto.AccountStatusResponse;
+import com.vijay.User_Master.dto.UserListRow;
+import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.User;
+
+/*
+ *  Hand-written User -> UserResponse mapping, replaces the reflective ModelMapper on read paths.
+ *  The password hash is never copied into a response.
+ */
+public class UserMapper {
+
+    public static UserResponse toResponse(User user) {
+        if (user == null) {
+            return null;
+        }
+        return UserResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .phoNo(user.getPhoNo())
+                .about(user.getAbout())
+                .imageName(user.getImageName())
+                .isDeleted(user.isDeleted())
+                .deletedOn(user.getDeletedOn())
+                .roles(RoleMapper.copyOf(user.getRoles()))
+                .accountStatus(toStatusResponse(user.getAccountStatus()))
+                .build();
+    }
+
+    // List projection, no about / password columns are selected
+    public static UserResponse toResponse(UserListRow row) {
+        AccountStatusResponse status = null;
+        if (row.isActive() != null) {
+            status = new AccountStatusResponse();
+            status.setIsActive(row.isActive());
+        }
+        return UserResponse.builder()
+                .id(row.id())
+                .name(row.name())
+                .username(row.username())
+                .email(row.email())
+                .phoNo(row.phoNo())
+                .imageName(row.imageName())
+                .isDeleted(row.isDeleted())
+                .deletedOn(row.deletedOn())
+                .roles(RoleMapper.fromAggregate(row.roles()))
+                .accountStatus(status)
+                .build();
+    }
+
+    // Logged-in principal (login response, current user)
+    public static UserResponse fromPrincipal(CustomUserDetails principal) {
+        if (principal == null) {
+            return null;
+        }
+        return UserResponse.builder()
+                .id(principal.getId())
+                .name(principal.getName())
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .phoNo(principal.getPhoNo())
+                .imageName(principal.getImageName())
+                .isDeleted(principal.isDeleted())
+                .deletedOn(principal.getDeletedOn())
+                .roles(RoleMapper.copyOf(principal.getRoles()))
+                .accountStatus(toStatusResponse(principal.getAccountStatus()))
+                .build();
+    }
+
+    static AccountStatusResponse toStatusResponse(AccountStatus status) {
+        if (status == null) {
+            return null;
+        }
+        AccountStatusResponse response = new AccountStatusResponse();
+        response.setIsActive(status.getIsActive());
+        return response;
+    }
+}
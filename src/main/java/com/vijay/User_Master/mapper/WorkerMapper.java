@@ -0,0 +1,62 @@
+package com.vijay.User_Master.mapper;
+
+import com.vijay.User_Master.dto.WorkerListRow;
+import com.vijay.User_Master.dto.WorkerResponse;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.Worker;
+
+// Hand-written Worker -> WorkerResponse mapping, the password hash is never copied
+public class WorkerMapper {
+
+    public static WorkerResponse toResponse(Worker worker) {
+        if (worker == null) {
+            return null;
+        }
+        return WorkerResponse.builder()
+                .id(worker.getId())
+                .name(worker.getName())
+                .username(worker.getUsername())
+                .email(worker.getEmail())
+                .phoNo(worker.getPhoNo())
+                .about(worker.getAbout())
+                .imageName(worker.getImageName())
+                .isDeleted(worker.isDeleted())
+                .deletedOn(worker.getDeletedOn())
+                .roles(RoleMapper.copyOf(worker.getRoles()))
+                .accountStatus(toStatusResponse(worker.getAccountStatus()))
+                .build();
+    }
+
+    // List projection, no about / password columns are selected
+    public static WorkerResponse toResponse(WorkerListRow row) {
+        WorkerResponse.AccountStatus status = null;
+        if (row.accountStatusId() != null) {
+            status = WorkerResponse.AccountStatus.builder()
+                    .id(row.accountStatusId().longValue())
+                    .isActive(row.isActive())
+                    .build();
+        }
+        return WorkerResponse.builder()
+                .id(row.id())
+                .name(row.name())
+                .username(row.username())
+                .email(row.email())
+                .phoNo(row.phoNo())
+                .imageName(row.imageName())
+                .isDeleted(row.isDeleted())
+                .deletedOn(row.deletedOn())
+                .roles(RoleMapper.fromAggregate(row.roles()))
+                .accountStatus(status)
+                .build();
+    }
+
+    private static WorkerResponse.AccountStatus toStatusResponse(AccountStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return WorkerResponse.AccountStatus.builder()
+                .id(status.getId() != null ? status.getId().longValue() : null)
+                .isActive(status.getIsActive())
+                .build();
+    }
+}
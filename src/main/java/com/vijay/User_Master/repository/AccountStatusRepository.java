@@ -2,6 +2,27 @@ package com.vijay.User_Master.repository;
 
 import com.vijay.User_Master.entity.AccountStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface AccountStatusRepository extends JpaRepository<AccountStatus,Long> {
+
+    // Bulk status changes (BulkAccountService), one UPDATE for the status rows of a chunk of principals
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountStatus s SET s.isActive = :active " +
+            "WHERE s.id IN (SELECT w.accountStatus.id FROM Worker w WHERE w.id IN :ids)")
+    int updateWorkerStatuses(@Param("ids") Collection<Long> workerIds, @Param("active") boolean active);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountStatus s SET s.isActive = :active " +
+            "WHERE s.id IN (SELECT u.accountStatus.id FROM User u WHERE u.id IN :ids)")
+    int updateUserStatuses(@Param("ids") Collection<Long> userIds, @Param("active") boolean active);
+
+    // Recycle-bin purge: status rows of workers that are already gone
+    @Modifying
+    @Query("DELETE FROM AccountStatus s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
 }
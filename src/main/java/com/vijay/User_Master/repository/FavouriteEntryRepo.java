@@ -2,11 +2,20 @@ package com.vijay.User_Master.repository;
 
 import com.vijay.User_Master.entity.FavouriteEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface FavouriteEntryRepo extends JpaRepository<FavouriteEntry, Long> {
 
     List<FavouriteEntry> findByUserId(Long userId);
+
+    // Recycle-bin purge: favourites pointing at a chunk of workers about to be deleted
+    @Modifying
+    @Query("DELETE FROM FavouriteEntry f WHERE f.worker.id IN :ids")
+    int deleteByWorkerIds(@Param("ids") Collection<Long> workerIds);
 }
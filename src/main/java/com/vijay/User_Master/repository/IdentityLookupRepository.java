@@ -0,0 +1,46 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.entity.IdentityLookup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IdentityLookupRepository extends JpaRepository<IdentityLookup, String> {
+
+    List<IdentityLookup> findByPrincipalTypeAndPrincipalIdIn(PrincipalType principalType, Collection<Long> principalIds);
+
+    boolean existsByIdentifierIn(Collection<String> identifiers);
+
+    /*
+     *  Startup reconciliation, set-based so it stays cheap on large tables.
+     *  Identifiers are normalized as LOWER(TRIM(..)), like IdentityLookupIndex.normalize.
+     *  Users are inserted first, so they win the (unexpected) clash with a worker identifier.
+     * */
+    @Modifying
+    @Query(value = "DELETE l FROM identity_lookup l LEFT JOIN users u ON u.id = l.principal_id " +
+            "AND (LOWER(TRIM(u.username)) = l.identifier OR LOWER(TRIM(u.email)) = l.identifier) " +
+            "WHERE l.principal_type = 'USER' AND u.id IS NULL", nativeQuery = true)
+    int deleteStaleUserEntries();
+
+    @Modifying
+    @Query(value = "DELETE l FROM identity_lookup l LEFT JOIN workers w ON w.id = l.principal_id " +
+            "AND (LOWER(TRIM(w.username)) = l.identifier OR LOWER(TRIM(w.email)) = l.identifier) " +
+            "WHERE l.principal_type = 'WORKER' AND w.id IS NULL", nativeQuery = true)
+    int deleteStaleWorkerEntries();
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO identity_lookup (identifier, principal_type, principal_id) " +
+            "SELECT LOWER(TRIM(username)), 'USER', id FROM users " +
+            "UNION ALL SELECT LOWER(TRIM(email)), 'USER', id FROM users", nativeQuery = true)
+    int insertMissingUserEntries();
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO identity_lookup (identifier, principal_type, principal_id) " +
+            "SELECT LOWER(TRIM(username)), 'WORKER', id FROM workers " +
+            "UNION ALL SELECT LOWER(TRIM(email)), 'WORKER', id FROM workers", nativeQuery = true)
+    int insertMissingWorkerEntries();
+}
@@ -0,0 +1,92 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ *  Builds the seek part of a keyset page query: the predicate after the cursor and the
+ *  matching ORDER BY. The sort column comes from KeysetCursor.SORT_KEYS, never from raw input.
+ *  Only (id, sort value) is selected so the page is an index range scan that stops after
+ *  `limit` rows, the list columns are loaded afterwards for those ids.
+ *
+ *  The sort column may be NULL (name). MySQL sorts NULLs first ascending and last descending,
+ *  so the seek predicate adds IS NULL branches in the same places instead of comparing with NULL.
+ */
+final class KeysetQuerySupport {
+
+    private KeysetQuerySupport() {
+    }
+
+    static List<KeysetCursor> findPositions(EntityManager entityManager, String alias, String fromAndWhere,
+                                            Map<String, Object> params, KeysetCursor cursor, int limit) {
+        String key = alias + "." + cursor.sortBy();
+        String id = alias + ".id";
+        boolean byId = "id".equals(cursor.sortBy());
+        String cmp = cursor.descending() ? "<" : ">";
+        String dir = cursor.descending() ? " DESC" : " ASC";
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(id).append(", ")
+                .append(byId ? id : key).append(' ').append(fromAndWhere);
+        if (!cursor.isFirstPage()) {
+            jpql.append(" AND ");
+            if (byId) {
+                jpql.append(id).append(' ').append(cmp).append(" :lastId");
+            } else if (cursor.lastValue() == null) {
+                // Inside the NULL block: the rest of it, then (ascending only) every non-NULL value
+                jpql.append("((").append(key).append(" IS NULL AND ").append(id).append(' ').append(cmp)
+                        .append(" :lastId)");
+                if (!cursor.descending()) {
+                    jpql.append(" OR ").append(key).append(" IS NOT NULL");
+                }
+                jpql.append(')');
+            } else {
+                jpql.append('(').append(key).append(' ').append(cmp).append(" :lastValue OR (")
+                        .append(key).append(" = :lastValue AND ").append(id).append(' ').append(cmp)
+                        .append(" :lastId)");
+                if (cursor.descending()) {
+                    jpql.append(" OR ").append(key).append(" IS NULL");
+                }
+                jpql.append(')');
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append(key).append(dir).append(", ");
+        }
+        jpql.append(id).append(dir);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        params.forEach(query::setParameter);
+        if (!cursor.isFirstPage()) {
+            query.setParameter("lastId", cursor.lastId());
+            if (!byId && cursor.lastValue() != null) {
+                query.setParameter("lastValue", cursor.lastValue());
+            }
+        }
+        query.setMaxResults(limit);
+
+        List<KeysetCursor> positions = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            positions.add(cursor.after(row[1] == null ? null : row[1].toString(), (Long) row[0]));
+        }
+        return positions;
+    }
+
+    // Filters are appended only when set, so MySQL can pick the matching composite index
+    static void like(StringBuilder where, Map<String, Object> params, String keyword, String... paths) {
+        where.append(" AND (");
+        for (int i = 0; i < paths.length; i++) {
+            if (i > 0) {
+                where.append(" OR ");
+            }
+            where.append(paths[i]).append(" LIKE :keyword");
+        }
+        where.append(')');
+        params.put("keyword", "%" + keyword + "%");
+    }
+}
@@ -0,0 +1,18 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.entity.PurgeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PurgeJobRepository extends JpaRepository<PurgeJob, Long> {
+
+    List<PurgeJob> findByStatusInOrderById(Collection<PurgeJob.Status> statuses);
+
+    Optional<PurgeJob> findFirstByTypeAndOwnerIdAndStatusIn(PurgeJob.Type type, Long ownerId,
+                                                             Collection<PurgeJob.Status> statuses);
+
+    boolean existsByTypeAndStatusIn(PurgeJob.Type type, Collection<PurgeJob.Status> statuses);
+}
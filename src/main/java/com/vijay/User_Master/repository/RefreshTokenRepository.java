@@ -1,7 +1,6 @@
 package com.vijay.User_Master.repository;
 
 import com.vijay.User_Master.entity.RefreshToken;
-import com.vijay.User_Master.entity.User;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,13 +9,35 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-    Optional<RefreshToken> findByUser(User user);
+    // Token refresh: the token with its owner, roles and status in one query
+    @Query("SELECT rt FROM RefreshToken rt " +
+            "LEFT JOIN FETCH rt.user u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.accountStatus " +
+            "LEFT JOIN FETCH rt.worker w LEFT JOIN FETCH w.roles LEFT JOIN FETCH w.accountStatus " +
+            "WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithOwnerByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Rotation in place, only if the row still holds the presented token
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = :newHash, rt.expiryDate = :expiryDate " +
+            "WHERE rt.id = :id AND rt.tokenHash = :oldHash")
+    int rotate(@Param("id") int id,
+               @Param("oldHash") String oldHash,
+               @Param("newHash") String newHash,
+               @Param("expiryDate") Instant expiryDate);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
 
     @Modifying
     @Transactional
@@ -28,5 +49,40 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Inte
     @Query("DELETE FROM RefreshToken rt WHERE rt.worker.id = :workerId")
     void deleteByWorkerId(@Param("workerId") Long workerId);
 
+    // Recycle-bin purge, runs in the chunk's transaction
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.worker.id IN :ids")
+    int deleteByWorkerIds(@Param("ids") Collection<Long> workerIds);
+
     Optional<RefreshToken> findByUsername(String identifier);
-}
\ No newline at end of file
+
+    /*
+     *  Session cap: keep the newest :keep tokens of the owner and delete the rest.
+     *  The derived table is needed because MySQL can't use LIMIT inside IN (...) directly.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE user_id = :userId AND id NOT IN (" +
+            "SELECT id FROM (SELECT id FROM refresh_token WHERE user_id = :userId ORDER BY id DESC LIMIT :keep) newest)",
+            nativeQuery = true)
+    int trimUserSessions(@Param("userId") Long userId, @Param("keep") int keep);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE worker_id = :workerId AND id NOT IN (" +
+            "SELECT id FROM (SELECT id FROM refresh_token WHERE worker_id = :workerId ORDER BY id DESC LIMIT :keep) newest)",
+            nativeQuery = true)
+    int trimWorkerSessions(@Param("workerId") Long workerId, @Param("keep") int keep);
+
+    // Sweeper: small chunks keep every delete short and its row locks brief
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE expiry_date < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    // Rows written before token hashing (plaintext token, no hash) can no longer be looked up
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE token_hash IS NULL LIMIT :limit", nativeQuery = true)
+    int deleteLegacyBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,12 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+
+import java.util.List;
+
+public interface UserKeysetRepository {
+
+    // Positions of the next `limit` users after the cursor, in page order
+    List<KeysetCursor> findKeysetPage(KeysetCursor cursor, String keyword, Boolean isDeleted, Boolean isActive,
+                                      int limit);
+}
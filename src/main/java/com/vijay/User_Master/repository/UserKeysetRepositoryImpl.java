@@ -0,0 +1,38 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class UserKeysetRepositoryImpl implements UserKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<KeysetCursor> findKeysetPage(KeysetCursor cursor, String keyword, Boolean isDeleted, Boolean isActive,
+                                             int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder from = new StringBuilder("FROM User u");
+        if (isActive != null) {
+            from.append(" JOIN u.accountStatus s");
+        }
+        from.append(" WHERE 1 = 1");
+        if (isDeleted != null) {
+            from.append(" AND u.isDeleted = :isDeleted");
+            params.put("isDeleted", isDeleted);
+        }
+        if (isActive != null) {
+            from.append(" AND s.isActive = :isActive");
+            params.put("isActive", isActive);
+        }
+        if (keyword != null) {
+            KeysetQuerySupport.like(from, params, keyword, "u.name", "u.email", "u.username", "u.phoNo");
+        }
+        return KeysetQuerySupport.findPositions(entityManager, "u", from.toString(), params, cursor, limit);
+    }
+}
@@ -1,54 +1,189 @@
 package com.vijay.User_Master.repository;
 
 
+import com.vijay.User_Master.dto.UserListRow;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.search.SearchIndexRow;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserKeysetRepository {
 
 
     User findByEmail(String email);
 
     Optional<User> findByUsernameOrEmail(String username, String email);
 
+    // Fetch plans per use case, see the entity graphs on User
 
+    @Override
+    @EntityGraph("User.list")
+    Page<User> findAll(Pageable pageable);
 
-    Boolean existsByUsername(String username);
+    @Override
+    @EntityGraph("User.list")
+    Page<User> findAll(Specification<User> spec, Pageable pageable);
 
-    Boolean existsByEmail(String email);
+    @EntityGraph("User.detail")
+    Optional<User> findDetailById(Long id);
 
-    User findByUsername(String username);
+    // Auth principal: runs in the JWT filter, outside any open session
+    @EntityGraph("User.detail")
+    Optional<User> findPrincipalByUsernameOrEmail(String username, String email);
 
+    @EntityGraph("User.detail")
+    @Query("SELECT u FROM User u")
+    List<User> findAllForExport();
 
-    Page<User> findAllByIsDeletedFalse(Pageable pageable);
 
-    Page<User> findAllByIsDeletedTrue(Pageable pageable);
 
-    Page<User> findAllByIsDeleted(boolean isDeleted, Pageable pageable);
+    Boolean existsByUsername(String username);
 
-    Page<User> findAllByAccountStatus_IsActive(boolean isActive, Pageable pageable);
+    Boolean existsByEmail(String email);
 
-    Page<User> findAllByIsDeletedAndAccountStatus_IsActive(boolean isDeleted, boolean isActive, Pageable pageable);
+    // 1 if any value is a username or e-mail of a user or worker: one round trip, every branch hits a unique index
+    @Query(value = "SELECT EXISTS(" +
+            "SELECT 1 FROM users WHERE username IN (:identifiers) UNION ALL " +
+            "SELECT 1 FROM users WHERE email IN (:identifiers) UNION ALL " +
+            "SELECT 1 FROM workers WHERE username IN (:identifiers) UNION ALL " +
+            "SELECT 1 FROM workers WHERE email IN (:identifiers))", nativeQuery = true)
+    Long existsAnyIdentifier(@Param("identifiers") Collection<String> identifiers);
+
+    // The values among the given ones that are a username or e-mail of a user or worker, as stored
+    @Query(value = "SELECT username FROM users WHERE username IN (:identifiers) UNION ALL " +
+            "SELECT email FROM users WHERE email IN (:identifiers) UNION ALL " +
+            "SELECT username FROM workers WHERE username IN (:identifiers) UNION ALL " +
+            "SELECT email FROM workers WHERE email IN (:identifiers)", nativeQuery = true)
+    List<String> findTakenIdentifiers(@Param("identifiers") Collection<String> identifiers);
+
+    User findByUsername(String username);
 
-    @Query("SELECT u FROM User u WHERE " +
-            "(:keyword IS NULL OR u.name LIKE %:keyword% OR u.email LIKE %:keyword% OR u.username LIKE %:keyword%) AND " +
-            "(:isDeleted IS NULL OR u.isDeleted = :isDeleted) AND " +
-            "(:isActive IS NULL OR u.accountStatus.isActive = :isActive)")
-    Page<User> searchUsersWithKeyword(@Param("keyword") String keyword,
-                                      @Param("isDeleted") Boolean isDeleted,
-                                      @Param("isActive") Boolean isActive,
-                                      Pageable pageable);
 
+    /*
+     *  List pages select straight into UserListRow: only the list columns, with the role
+     *  names aggregated in the same query (one row per user, no entity or graph loaded).
+     *  Role entries are "id:active:deleted:name" joined by ',', see RoleMapper.fromAggregate.
+     */
+    String ROLE_AGGREGATE = "listagg(concat(str(r.id), ':', " +
+            "case when r.isActive = true then '1' else '0' end, ':', " +
+            "case when r.isDeleted = true then '1' else '0' end, ':', r.name), ',') " +
+            "WITHIN GROUP (ORDER BY r.id)";
+
+    String USER_LIST_FILTER = "WHERE " +
+            "(:keyword IS NULL OR u.name LIKE %:keyword% OR u.email LIKE %:keyword% OR u.username LIKE %:keyword% OR u.phoNo LIKE %:keyword%) AND " +
+            "(:isDeleted IS NULL OR u.isDeleted = :isDeleted) AND " +
+            "(:isActive IS NULL OR s.isActive = :isActive)";
+
+    String USER_LIST_SELECT = "SELECT new com.vijay.User_Master.dto.UserListRow(" +
+            "u.id, u.name, u.username, u.email, u.phoNo, u.imageName, u.isDeleted, u.deletedOn, s.isActive, " +
+            ROLE_AGGREGATE + ") " +
+            "FROM User u LEFT JOIN u.accountStatus s LEFT JOIN u.roles r ";
+
+    String USER_LIST_GROUP_BY = " GROUP BY u.id, u.name, u.username, u.email, u.phoNo, u.imageName, " +
+            "u.isDeleted, u.deletedOn, s.isActive";
+
+    // Slice: no count query, totals come from countListRows through ListCountCache
+    @Query(USER_LIST_SELECT + USER_LIST_FILTER + USER_LIST_GROUP_BY)
+    Slice<UserListRow> findListRows(@Param("keyword") String keyword,
+                                    @Param("isDeleted") Boolean isDeleted,
+                                    @Param("isActive") Boolean isActive,
+                                    Pageable pageable);
+
+    @Query("SELECT count(u) FROM User u LEFT JOIN u.accountStatus s " + USER_LIST_FILTER)
+    long countListRows(@Param("keyword") String keyword,
+                       @Param("isDeleted") Boolean isDeleted,
+                       @Param("isActive") Boolean isActive);
+
+    // Full export, same filters as findListRows, streamed from a forward-only cursor in (name, id) order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(USER_LIST_SELECT + USER_LIST_FILTER + USER_LIST_GROUP_BY + " ORDER BY u.name, u.id")
+    Stream<UserListRow> streamListRows(@Param("keyword") String keyword,
+                                       @Param("isDeleted") Boolean isDeleted,
+                                       @Param("isActive") Boolean isActive);
+
+    // Second step of a keyset page (see UserKeysetRepository), rows come back unordered
+    @Query(USER_LIST_SELECT + "WHERE u.id IN :ids" + USER_LIST_GROUP_BY)
+    List<UserListRow> findListRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Search index (SearchIndexService): streamed once at startup, re-read by id on changes
+    String USER_SEARCH_INDEX_SELECT = "SELECT new com.vijay.User_Master.search.SearchIndexRow(" +
+            "u.id, 0L, u.name, u.username, u.email, u.phoNo, u.isDeleted, s.isActive) " +
+            "FROM User u LEFT JOIN u.accountStatus s ";
+
+    // MySQL Connector/J streams rows instead of buffering the table with fetch size Integer.MIN_VALUE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(USER_SEARCH_INDEX_SELECT)
+    Stream<SearchIndexRow> streamSearchIndexRows();
+
+    @Query(USER_SEARCH_INDEX_SELECT + "WHERE u.id IN :ids")
+    List<SearchIndexRow> findSearchIndexRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Autocomplete until the prefix index is built; prefix LIKEs can use the username, email and name indexes
+    @Query(USER_SEARCH_INDEX_SELECT + "WHERE u.isDeleted = false " +
+            "AND (u.username LIKE :prefix% OR u.email LIKE :prefix% OR u.name LIKE :prefix%) " +
+            "ORDER BY u.username")
+    List<SearchIndexRow> findAutocompleteRows(@Param("prefix") String prefix, Pageable pageable);
+
+    // Bulk actions (BulkAccountService), see WorkerRepository.findBulkIds; the acting admin is never selected
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND (:isDeleted IS NULL OR u.isDeleted = :isDeleted) " +
+            "AND u.id <> :excludeId")
+    List<Long> findBulkIds(@Param("ids") Collection<Long> ids,
+                           @Param("isDeleted") Boolean isDeleted,
+                           @Param("excludeId") Long excludeId);
+
+    @Query("SELECT u.id FROM User u LEFT JOIN u.accountStatus s " + USER_LIST_FILTER +
+            " AND u.id <> :excludeId AND u.id > :afterId ORDER BY u.id")
+    List<Long> findBulkIdsAfter(@Param("keyword") String keyword,
+                                @Param("isDeleted") Boolean isDeleted,
+                                @Param("isActive") Boolean isActive,
+                                @Param("excludeId") Long excludeId,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.isDeleted = true, u.deletedOn = :deletedOn WHERE u.id IN :ids AND u.isDeleted = false")
+    int softDeleteAllById(@Param("ids") Collection<Long> ids, @Param("deletedOn") LocalDateTime deletedOn);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.isDeleted = false, u.deletedOn = null WHERE u.id IN :ids AND u.isDeleted = true")
+    int restoreAllById(@Param("ids") Collection<Long> ids);
+
+    // Soft delete cascade: the distinct deletedOn of the deleted users among ids, then the users per value
+    @Query("SELECT DISTINCT u.deletedOn FROM User u WHERE u.id IN :ids AND u.isDeleted = true AND u.deletedOn IS NOT NULL")
+    List<LocalDateTime> findDeletedOnByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.isDeleted = true AND u.deletedOn = :deletedOn")
+    List<Long> findIdsDeletedOn(@Param("ids") Collection<Long> ids, @Param("deletedOn") LocalDateTime deletedOn);
+
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.accountStatus IS NULL")
+    List<User> findAllByIdWithoutStatus(@Param("ids") Collection<Long> ids);
+
+    // Rehash on login: only the password column changes
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 
 
 }
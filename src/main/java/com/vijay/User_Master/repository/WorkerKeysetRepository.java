@@ -0,0 +1,12 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+
+import java.util.List;
+
+public interface WorkerKeysetRepository {
+
+    // Positions of the next `limit` workers of the super user after the cursor, in page order
+    List<KeysetCursor> findKeysetPage(KeysetCursor cursor, Long superUserId, String keyword, Boolean isDeleted,
+                                      Boolean isActive, int limit);
+}
@@ -0,0 +1,42 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class WorkerKeysetRepositoryImpl implements WorkerKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<KeysetCursor> findKeysetPage(KeysetCursor cursor, Long superUserId, String keyword, Boolean isDeleted,
+                                             Boolean isActive, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder from = new StringBuilder("FROM Worker w");
+        if (isActive != null) {
+            from.append(" JOIN w.accountStatus s");
+        }
+        from.append(" WHERE 1 = 1");
+        if (superUserId != null) {
+            from.append(" AND w.user.id = :userId");
+            params.put("userId", superUserId);
+        }
+        if (isDeleted != null) {
+            from.append(" AND w.isDeleted = :isDeleted");
+            params.put("isDeleted", isDeleted);
+        }
+        if (isActive != null) {
+            from.append(" AND s.isActive = :isActive");
+            params.put("isActive", isActive);
+        }
+        if (keyword != null) {
+            KeysetQuerySupport.like(from, params, keyword, "w.name", "w.email", "w.username", "w.phoNo");
+        }
+        return KeysetQuerySupport.findPositions(entityManager, "w", from.toString(), params, cursor, limit);
+    }
+}
@@ -1,19 +1,34 @@
 package com.vijay.User_Master.repository;
 
+import com.vijay.User_Master.dto.WorkerListRow;
 import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.search.SearchIndexRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface WorkerRepository extends JpaRepository<Worker, Long>, JpaSpecificationExecutor<Worker> {
+public interface WorkerRepository extends JpaRepository<Worker, Long>, JpaSpecificationExecutor<Worker>,
+        WorkerKeysetRepository {
 
 
    // Worker findByEmail(String email);
@@ -21,16 +36,41 @@ public interface WorkerRepository extends JpaRepository<Worker, Long>, JpaSpecif
 
     Optional<Worker> findByUsernameOrEmail(String username, String email);
 
+    // Fetch plans per use case, see the entity graphs on Worker
+
+    @Override
+    @EntityGraph("Worker.list")
+    Page<Worker> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("Worker.list")
+    Page<Worker> findAll(Specification<Worker> spec, Pageable pageable);
+
+    @EntityGraph("Worker.detail")
+    Optional<Worker> findDetailById(Long id);
+
+    // Auth principal: runs in the JWT filter, outside any open session
+    @EntityGraph("Worker.detail")
+    Optional<Worker> findPrincipalByUsernameOrEmail(String username, String email);
+
+    @EntityGraph("Worker.detail")
+    @Query("SELECT w FROM Worker w")
+    List<Worker> findAllForExport();
+
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
 
 
+    @EntityGraph("Worker.list")
     Page<Worker> findByCreatedByAndIsDeletedFalse(Long createdBy, Pageable pageable);
 
     // Find all workers created by a specific user and marked as deleted
+    @EntityGraph("Worker.list")
     Page<Worker> findByCreatedByAndIsDeletedTrue(Long createdBy, Pageable pageable);
 
+    boolean existsByCreatedByAndIsDeletedTrue(Long createdBy);
+
     // Find all workers by a specific status
     List<Worker> findByAccountStatus_IsActive(Boolean isActive);
 
@@ -40,33 +80,150 @@ public interface WorkerRepository extends JpaRepository<Worker, Long>, JpaSpecif
     // Find all workers by username
     List<Worker> findByUsername(String username);
 
-    Page<Worker> findByUser_Id(Long loggedInUserId, Pageable pageable);
-    // All workers created by a specific user
-    // Active workers
-    Page<Worker> findByUser_IdAndIsDeletedFalseAndAccountStatus_IsActiveTrue(Long userId, Pageable pageable);
-
-    // Deleted workers
-    Page<Worker> findByUser_IdAndIsDeletedTrue(Long userId, Pageable pageable);
-
-    // Expired workers (not active but not deleted)
-    Page<Worker> findByUser_IdAndIsDeletedFalseAndAccountStatus_IsActiveFalse(Long userId, Pageable pageable);
-
-    @Query("SELECT w FROM Worker w WHERE " +
-            "(:keyword IS NULL OR w.name LIKE %:keyword% OR w.username LIKE %:keyword% OR w.email LIKE %:keyword%) AND " +
+    // List pages as WorkerListRow projections, see UserRepository.findListRows
+    String WORKER_LIST_FILTER = "WHERE " +
+            "(:keyword IS NULL OR w.name LIKE %:keyword% OR w.username LIKE %:keyword% OR w.email LIKE %:keyword% OR w.phoNo LIKE %:keyword%) AND " +
             "(:isDeleted IS NULL OR w.isDeleted = :isDeleted) AND " +
-            "(:isActive IS NULL OR w.accountStatus.isActive = :isActive) AND " +
-            "(:userId IS NULL OR w.user.id = :userId)")
-    Page<Worker> searchWorkersBySuperUserWithKeyword(@Param("keyword") String keyword,
-                                                     @Param("isDeleted") Boolean isDeleted,
-                                                     @Param("isActive") Boolean isActive,
-                                                     @Param("userId") Long superUserId,
-                                                     Pageable pageable);
-
-    Page<Worker> findByUser_IdAndIsDeletedAndAccountStatus_IsActive(Long userId, boolean isDeleted, boolean isActive, Pageable pageable);
-
-    Page<Worker> findByUser_IdAndIsDeleted(Long userId, boolean isDeleted, Pageable pageable);
-
-    Page<Worker> findByUser_IdAndAccountStatus_IsActive(Long userId, boolean isActive, Pageable pageable);
+            "(:isActive IS NULL OR s.isActive = :isActive) AND " +
+            "(:userId IS NULL OR w.user.id = :userId)";
+
+    String WORKER_SEARCH_FILTER = "WHERE " +
+            "w.name LIKE %:query% OR w.username LIKE %:query% OR w.email LIKE %:query% OR " +
+            "w.phoNo LIKE %:query% OR cast(s.isActive as String) LIKE %:query%";
+
+    String WORKER_LIST_SELECT = "SELECT new com.vijay.User_Master.dto.WorkerListRow(" +
+            "w.id, w.name, w.username, w.email, w.phoNo, w.imageName, w.isDeleted, w.deletedOn, s.id, s.isActive, " +
+            UserRepository.ROLE_AGGREGATE + ") " +
+            "FROM Worker w LEFT JOIN w.accountStatus s LEFT JOIN w.roles r ";
+
+    String WORKER_LIST_GROUP_BY = " GROUP BY w.id, w.name, w.username, w.email, w.phoNo, w.imageName, " +
+            "w.isDeleted, w.deletedOn, s.id, s.isActive";
+
+    // Slices: no count query, totals come from the count methods through ListCountCache
+    @Query(WORKER_LIST_SELECT + WORKER_LIST_FILTER + WORKER_LIST_GROUP_BY)
+    Slice<WorkerListRow> findListRows(@Param("userId") Long superUserId,
+                                      @Param("keyword") String keyword,
+                                      @Param("isDeleted") Boolean isDeleted,
+                                      @Param("isActive") Boolean isActive,
+                                      Pageable pageable);
+
+    @Query("SELECT count(w) FROM Worker w LEFT JOIN w.accountStatus s " + WORKER_LIST_FILTER)
+    long countListRows(@Param("userId") Long superUserId,
+                       @Param("keyword") String keyword,
+                       @Param("isDeleted") Boolean isDeleted,
+                       @Param("isActive") Boolean isActive);
+
+    @Query(WORKER_LIST_SELECT + WORKER_SEARCH_FILTER + WORKER_LIST_GROUP_BY)
+    Slice<WorkerListRow> searchListRows(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT count(w) FROM Worker w LEFT JOIN w.accountStatus s " + WORKER_SEARCH_FILTER)
+    long countSearchListRows(@Param("query") String query);
+
+    // Full export, same filters as findListRows. Streamed from a forward-only cursor in
+    // (user_id, name, id) index order, projections are never attached to the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(WORKER_LIST_SELECT + WORKER_LIST_FILTER + WORKER_LIST_GROUP_BY + " ORDER BY w.name, w.id")
+    Stream<WorkerListRow> streamListRows(@Param("userId") Long superUserId,
+                                         @Param("keyword") String keyword,
+                                         @Param("isDeleted") Boolean isDeleted,
+                                         @Param("isActive") Boolean isActive);
+
+    // Second step of a keyset page (see WorkerKeysetRepository), rows come back unordered
+    @Query(WORKER_LIST_SELECT + "WHERE w.id IN :ids" + WORKER_LIST_GROUP_BY)
+    List<WorkerListRow> findListRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Search index (SearchIndexService): streamed once at startup, re-read by id on changes
+    String WORKER_SEARCH_INDEX_SELECT = "SELECT new com.vijay.User_Master.search.SearchIndexRow(" +
+            "w.id, w.user.id, w.name, w.username, w.email, w.phoNo, w.isDeleted, s.isActive) " +
+            "FROM Worker w LEFT JOIN w.accountStatus s ";
+
+    // MySQL Connector/J streams rows instead of buffering the table with fetch size Integer.MIN_VALUE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(WORKER_SEARCH_INDEX_SELECT)
+    Stream<SearchIndexRow> streamSearchIndexRows();
+
+    @Query(WORKER_SEARCH_INDEX_SELECT + "WHERE w.id IN :ids")
+    List<SearchIndexRow> findSearchIndexRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Autocomplete until the prefix index is built, scoped to one super user
+    @Query(WORKER_SEARCH_INDEX_SELECT + "WHERE w.user.id = :userId AND w.isDeleted = false " +
+            "AND (w.username LIKE :prefix% OR w.email LIKE :prefix% OR w.name LIKE :prefix%) " +
+            "ORDER BY w.username")
+    List<SearchIndexRow> findAutocompleteRows(@Param("userId") Long userId, @Param("prefix") String prefix,
+                                              Pageable pageable);
+
+    // Bulk actions (BulkAccountService): one chunk of ids is selected, then changed with set-based UPDATEs.
+    // The UPDATEs bypass the persistence context, so it is flushed before and cleared after them.
+    @Query("SELECT w.id FROM Worker w WHERE w.user.id = :userId AND w.id IN :ids " +
+            "AND (:isDeleted IS NULL OR w.isDeleted = :isDeleted)")
+    List<Long> findBulkIds(@Param("userId") Long superUserId,
+                           @Param("ids") Collection<Long> ids,
+                           @Param("isDeleted") Boolean isDeleted);
+
+    @Query("SELECT w.id FROM Worker w LEFT JOIN w.accountStatus s " + WORKER_LIST_FILTER + " AND w.id > :afterId ORDER BY w.id")
+    List<Long> findBulkIdsAfter(@Param("userId") Long superUserId,
+                                @Param("keyword") String keyword,
+                                @Param("isDeleted") Boolean isDeleted,
+                                @Param("isActive") Boolean isActive,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    // Cascade from super users (BulkAccountService.softDeleteWorkersOf / restoreWorkersOf): their live workers,
+    // or the deleted ones that were deleted together with them (same deletedOn); only while the user is deleted
+    @Query("SELECT w.id FROM Worker w JOIN w.user u WHERE u.id IN :userIds AND u.isDeleted = true " +
+            "AND w.isDeleted = :isDeleted AND (w.isDeleted = false OR w.deletedOn = u.deletedOn) " +
+            "AND w.id > :afterId ORDER BY w.id")
+    List<Long> findCascadeIdsAfter(@Param("userIds") Collection<Long> superUserIds,
+                                   @Param("isDeleted") boolean isDeleted,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Worker w SET w.isDeleted = true, w.deletedOn = :deletedOn, w.updatedOn = :now, w.updatedBy = :actor " +
+            "WHERE w.id IN :ids AND w.isDeleted = false")
+    int softDeleteAllById(@Param("ids") Collection<Long> ids,
+                          @Param("deletedOn") LocalDateTime deletedOn,
+                          @Param("now") Date now,
+                          @Param("actor") Integer actor);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Worker w SET w.isDeleted = false, w.deletedOn = null, w.updatedOn = :now, w.updatedBy = :actor " +
+            "WHERE w.id IN :ids AND w.isDeleted = true")
+    int restoreAllById(@Param("ids") Collection<Long> ids,
+                       @Param("now") Date now,
+                       @Param("actor") Integer actor);
+
+    // Workers registered without a status row, which a set-based status UPDATE cannot reach
+    @Query("SELECT w FROM Worker w WHERE w.id IN :ids AND w.accountStatus IS NULL")
+    List<Worker> findAllByIdWithoutStatus(@Param("ids") Collection<Long> ids);
+
+    // Recycle-bin purge (PurgeJobRunner): the next chunk of deleted workers in id order, locked until the
+    // chunk's transaction commits. created_by and deleted_on are only compared when given.
+    @Query(value = "SELECT id FROM workers WHERE is_deleted = 1 AND id > :afterId " +
+            "AND (:ownerId IS NULL OR created_by = :ownerId) " +
+            "AND (:deletedBefore IS NULL OR deleted_on < :deletedBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> findPurgeIdsAfter(@Param("ownerId") Long ownerId,
+                                 @Param("deletedBefore") LocalDateTime deletedBefore,
+                                 @Param("afterId") long afterId,
+                                 @Param("limit") int limit);
+
+    @Query("SELECT w.accountStatus.id FROM Worker w WHERE w.id IN :ids AND w.accountStatus IS NOT NULL")
+    List<Integer> findStatusIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM workers_roles WHERE worker_id IN :ids", nativeQuery = true)
+    int deleteRoleLinks(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Worker w WHERE w.id IN :ids AND w.isDeleted = true")
+    int deleteDeletedById(@Param("ids") Collection<Long> ids);
+
+    // Rehash on login: only the password column changes
+    @Modifying
+    @Transactional
+    @Query("UPDATE Worker w SET w.password = :password WHERE w.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 
 
 
@@ -0,0 +1,230 @@
+package com.vijay.User_Master.scheduler;
+
+import com.vijay.User_Master.entity.PurgeJob;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.AccountStatusRepository;
+import com.vijay.User_Master.repository.FavouriteEntryRepo;
+import com.vijay.User_Master.repository.PurgeJobRepository;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.impl.ListCountCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permanently deletes soft-deleted workers for {@link PurgeJob}s, one job at a time on a
+ * background thread.
+ *
+ * A job walks the matching workers in id order, app.purge.chunk-size per transaction: the
+ * chunk's rows are locked, their favourites, refresh tokens and role links deleted with one
+ * statement each, then the workers and their status rows, and the job's cursor and count
+ * are saved in the same transaction. A crash therefore loses at most the chunk in flight,
+ * and jobs still PENDING or RUNNING are resumed once the application is ready. Each chunk
+ * publishes one {@link IdentityChangedEvent}, which drops the identifiers, cached principals
+ * and search entries of the purged workers.
+ *
+ * Metrics: purge.workers.deleted (tag type: recycle_bin, retention).
+ */
+@Component
+@Log4j2
+public class PurgeJobRunner {
+
+    private static final Set<PurgeJob.Status> ACTIVE = EnumSet.of(PurgeJob.Status.PENDING, PurgeJob.Status.RUNNING);
+
+    private final PurgeJobRepository purgeJobRepository;
+    private final WorkerRepository workerRepository;
+    private final AccountStatusRepository accountStatusRepository;
+    private final FavouriteEntryRepo favouriteEntryRepo;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListCountCache listCountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter deletedFromRecycleBin;
+    private final Counter deletedByRetention;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "purge-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopping;
+
+    public PurgeJobRunner(PurgeJobRepository purgeJobRepository,
+                          WorkerRepository workerRepository,
+                          AccountStatusRepository accountStatusRepository,
+                          FavouriteEntryRepo favouriteEntryRepo,
+                          RefreshTokenRepository refreshTokenRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          ListCountCache listCountCache,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry registry,
+                          @Value("${app.purge.chunk-size:500}") int chunkSize) {
+        this.purgeJobRepository = purgeJobRepository;
+        this.workerRepository = workerRepository;
+        this.accountStatusRepository = accountStatusRepository;
+        this.favouriteEntryRepo = favouriteEntryRepo;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.listCountCache = listCountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.deletedFromRecycleBin = Counter.builder("purge.workers.deleted").tag("type", "recycle_bin").register(registry);
+        this.deletedByRetention = Counter.builder("purge.workers.deleted").tag("type", "retention").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        List<PurgeJob> unfinished = purgeJobRepository.findByStatusInOrderById(ACTIVE);
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished purge jobs", unfinished.size());
+            unfinished.forEach(job -> submit(job.getId()));
+        }
+    }
+
+    // An owner's recycle bin is emptied by one job at a time, asking again returns the running one
+    public PurgeJob emptyRecycleBin(Long ownerId) {
+        Optional<PurgeJob> running = purgeJobRepository
+                .findFirstByTypeAndOwnerIdAndStatusIn(PurgeJob.Type.RECYCLE_BIN, ownerId, ACTIVE);
+        return running.orElseGet(() -> start(PurgeJob.Type.RECYCLE_BIN, ownerId, null));
+    }
+
+    // Returns empty while an earlier retention job is still running
+    public Optional<PurgeJob> purgeDeletedBefore(LocalDateTime cutoff) {
+        if (purgeJobRepository.existsByTypeAndStatusIn(PurgeJob.Type.RETENTION, ACTIVE)) {
+            return Optional.empty();
+        }
+        return Optional.of(start(PurgeJob.Type.RETENTION, null, cutoff));
+    }
+
+    public Optional<PurgeJob> find(Long jobId) {
+        return purgeJobRepository.findById(jobId);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The chunk in flight commits, the job stays RUNNING and is resumed by the next start
+        stopping = true;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private PurgeJob start(PurgeJob.Type type, Long ownerId, LocalDateTime deletedBefore) {
+        PurgeJob job = purgeJobRepository.save(PurgeJob.builder()
+                .type(type)
+                .status(PurgeJob.Status.PENDING)
+                .ownerId(ownerId)
+                .deletedBefore(deletedBefore)
+                .createdOn(LocalDateTime.now())
+                .build());
+        submit(job.getId());
+        return job;
+    }
+
+    private void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        long start = System.currentTimeMillis();
+        try {
+            PurgeJob job = transactionTemplate.execute(status -> markRunning(jobId));
+            if (job == null) {
+                return;
+            }
+            Counter deleted = job.getType() == PurgeJob.Type.RETENTION ? deletedByRetention : deletedFromRecycleBin;
+            boolean more = true;
+            while (more && !stopping) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> purgeChunk(jobId, deleted)));
+                listCountCache.evictPrefix("workers|");
+            }
+            if (!more) {
+                log.info("Purge job {} ({}) finished in {} ms", jobId, job.getType(), System.currentTimeMillis() - start);
+            }
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Purge job {} was advanced by another runner, leaving it there", jobId);
+        } catch (RuntimeException ex) {
+            if (stopping) {
+                log.warn("Purge job {} interrupted by shutdown, it resumes on the next start", jobId);
+                return;
+            }
+            log.error("Purge job {} failed", jobId, ex);
+            fail(jobId, ex);
+        }
+    }
+
+    private PurgeJob markRunning(Long jobId) {
+        PurgeJob job = purgeJobRepository.findById(jobId).orElse(null);
+        if (job == null || !ACTIVE.contains(job.getStatus())) {
+            return null;
+        }
+        job.setStatus(PurgeJob.Status.RUNNING);
+        if (job.getStartedOn() == null) {
+            job.setStartedOn(LocalDateTime.now());
+        }
+        return purgeJobRepository.save(job);
+    }
+
+    // Runs inside the chunk's transaction, returns whether more rows may follow
+    private boolean purgeChunk(Long jobId, Counter deleted) {
+        PurgeJob job = purgeJobRepository.findById(jobId).orElseThrow();
+        List<Long> ids = workerRepository.findPurgeIdsAfter(job.getOwnerId(), job.getDeletedBefore(),
+                job.getLastId(), chunkSize);
+        int removed = 0;
+        if (!ids.isEmpty()) {
+            List<Integer> statusIds = workerRepository.findStatusIds(ids);
+            favouriteEntryRepo.deleteByWorkerIds(ids);
+            refreshTokenRepository.deleteByWorkerIds(ids);
+            workerRepository.deleteRoleLinks(ids);
+            // Clears the persistence context, the job is saved back by merge below
+            removed = workerRepository.deleteDeletedById(ids);
+            if (!statusIds.isEmpty()) {
+                accountStatusRepository.deleteAllByIdIn(statusIds);
+            }
+            eventPublisher.publishEvent(IdentityChangedEvent.workers(ids));
+            job.setLastId(ids.get(ids.size() - 1));
+            job.setDeleted(job.getDeleted() + removed);
+        }
+        boolean more = ids.size() == chunkSize;
+        if (!more) {
+            job.setStatus(PurgeJob.Status.COMPLETED);
+            job.setFinishedOn(LocalDateTime.now());
+        }
+        purgeJobRepository.save(job);
+        deleted.increment(removed);
+        return more;
+    }
+
+    private void fail(Long jobId, RuntimeException cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> purgeJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(PurgeJob.Status.FAILED);
+                job.setFinishedOn(LocalDateTime.now());
+                String message = String.valueOf(cause.getMessage());
+                job.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+                purgeJobRepository.save(job);
+            }));
+        } catch (RuntimeException ex) {
+            log.error("Could not mark purge job {} as failed, it resumes on the next start", jobId, ex);
+        }
+    }
+}
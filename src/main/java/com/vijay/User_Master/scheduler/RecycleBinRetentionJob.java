@@ -0,0 +1,38 @@
+package com.vijay.User_Master.scheduler;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retention policy for the recycle bin: workers deleted more than app.purge.retention-days
+ * ago are purged for good, by a {@link PurgeJobRunner} job like an emptied recycle bin.
+ * A retention of 0 or less, the default, keeps deleted workers until their owner empties the bin.
+ */
+@Component
+@Log4j2
+public class RecycleBinRetentionJob {
+
+    private final PurgeJobRunner purgeJobRunner;
+    private final int retentionDays;
+
+    public RecycleBinRetentionJob(PurgeJobRunner purgeJobRunner,
+                                  @Value("${app.purge.retention-days:0}") int retentionDays) {
+        this.purgeJobRunner = purgeJobRunner;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "${app.purge.retention.cron:0 0 4 * * *}")
+    public void purgeExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        purgeJobRunner.purgeDeletedBefore(cutoff).ifPresentOrElse(
+                job -> log.info("Purge job {} started for workers deleted before {}", job.getId(), cutoff),
+                () -> log.info("Previous retention purge still running, skipping this one"));
+    }
+}
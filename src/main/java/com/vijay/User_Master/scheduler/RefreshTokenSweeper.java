@@ -0,0 +1,64 @@
+package com.vijay.User_Master.scheduler;
+
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.function.IntSupplier;
+
+/**
+ * Deletes expired refresh tokens in the background.
+ *
+ * Each chunk is its own short transaction ({@code DELETE ... LIMIT}), using the expiry
+ * index, so no run holds row locks for long. A run stops after max-batches chunks and
+ * continues on the next tick. Rows from before token hashing are removed the same way.
+ * Deleted rows are counted in auth.refresh_token.swept.
+ */
+@Component
+@Log4j2
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter swept;
+
+    public RefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.auth.refresh-token.sweep.batch-size:1000}") int batchSize,
+                               @Value("${app.auth.refresh-token.sweep.max-batches:100}") int maxBatches) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.swept = Counter.builder("auth.refresh_token.swept").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-token.sweep.interval-ms:300000}",
+            initialDelayString = "${app.auth.refresh-token.sweep.initial-delay-ms:60000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        int expired = deleteInChunks(() -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+        int legacy = deleteInChunks(() -> refreshTokenRepository.deleteLegacyBatch(batchSize));
+        if (expired + legacy > 0) {
+            log.info("Refresh token sweep removed {} expired and {} legacy rows", expired, legacy);
+        }
+    }
+
+    private int deleteInChunks(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = chunk.getAsInt();
+            total += deleted;
+            swept.increment(deleted);
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,31 @@
+package com.vijay.User_Master.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Searchable columns of a user or worker, ownerId is the partition (super user) for workers
+public record SearchIndexRow(Long id,
+                             Long ownerId,
+                             String name,
+                             String username,
+                             String email,
+                             String phoNo,
+                             boolean isDeleted,
+                             Boolean isActive) {
+
+    String[] fields() {
+        return new String[]{name, username, email, phoNo};
+    }
+
+    // Autocomplete keys: username, email, the full name and each later word of it ("kumar" finds "Ravi Kumar")
+    String[] completionKeys() {
+        List<String> keys = new ArrayList<>(List.of(username == null ? "" : username, email == null ? "" : email));
+        if (name != null) {
+            keys.add(name);
+            String[] words = name.trim().split("\\s+");
+            keys.addAll(Arrays.asList(words).subList(Math.min(1, words.length), words.length));
+        }
+        return keys.toArray(new String[0]);
+    }
+}
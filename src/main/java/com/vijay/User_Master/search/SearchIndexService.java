@@ -0,0 +1,222 @@
+package com.vijay.User_Master.search;
+
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over users and workers without {@code LIKE %kw%} table scans.
+ *
+ * Both tables are streamed into a {@link TrigramIndex} once the application is ready
+ * (workers partitioned by their super user), then kept in sync from
+ * {@link IdentityChangedEvent}: the changed rows are re-read after commit and re-indexed,
+ * rows that no longer exist are dropped. Until the build finishes, or for keywords
+ * shorter than three characters, {@link #canSearch} is false and callers use the database.
+ *
+ * The same rows feed a {@link PrefixIndex} per type for autocomplete on username, e-mail
+ * and name; soft-deleted rows are left out of it.
+ *
+ * Metrics: search.index.size (tag type), search.index.query timer,
+ * search.autocomplete.bytes (tag type) and search.autocomplete.query timer.
+ */
+@Component
+@Log4j2
+public class SearchIndexService {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final long USER_PARTITION = 0L;
+
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final Timer queryTimer;
+    private final Timer autocompleteTimer;
+
+    private final TrigramIndex userIndex = new TrigramIndex();
+    private final TrigramIndex workerIndex = new TrigramIndex();
+    private final PrefixIndex userPrefixes = new PrefixIndex();
+    private final PrefixIndex workerPrefixes = new PrefixIndex();
+
+    private volatile boolean ready;
+    // Changes seen while the initial build is streaming, re-read once it is done
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedWorkers = ConcurrentHashMap.newKeySet();
+
+    public SearchIndexService(UserRepository userRepository,
+                              WorkerRepository workerRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.queryTimer = Timer.builder("search.index.query").register(meterRegistry);
+        this.autocompleteTimer = Timer.builder("search.autocomplete.query").register(meterRegistry);
+        Gauge.builder("search.index.size", userIndex, TrigramIndex::size).tag("type", "user").register(meterRegistry);
+        Gauge.builder("search.index.size", workerIndex, TrigramIndex::size).tag("type", "worker").register(meterRegistry);
+        Gauge.builder("search.autocomplete.bytes", userPrefixes, PrefixIndex::estimatedBytes)
+                .tag("type", "user").register(meterRegistry);
+        Gauge.builder("search.autocomplete.bytes", workerPrefixes, PrefixIndex::estimatedBytes)
+                .tag("type", "worker").register(meterRegistry);
+    }
+
+    // Built in the background so startup is not held up by large tables
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "search-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        long start = System.currentTimeMillis();
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<SearchIndexRow> rows = userRepository.streamSearchIndexRows()) {
+                    rows.forEach(row -> load(userIndex, userPrefixes, row, USER_PARTITION));
+                }
+                try (Stream<SearchIndexRow> rows = workerRepository.streamSearchIndexRows()) {
+                    rows.forEach(row -> load(workerIndex, workerPrefixes, row, row.ownerId()));
+                }
+                userPrefixes.compact();
+                workerPrefixes.compact();
+            });
+            ready = true;
+            reindex(PrincipalType.USER, drain(changedUsers));
+            reindex(PrincipalType.WORKER, drain(changedWorkers));
+            log.info("Search index built in {} ms: {} users, {} workers",
+                    System.currentTimeMillis() - start, userIndex.size(), workerIndex.size());
+        } catch (RuntimeException ex) {
+            log.error("Search index build failed, keyword search stays on the database", ex);
+        }
+    }
+
+    public boolean canSearch(String keyword) {
+        return enabled && ready && TrigramIndex.isSearchable(keyword);
+    }
+
+    public TrigramIndex.SearchResult searchUsers(String keyword, Boolean isDeleted, Boolean isActive,
+                                                 int offset, int limit) {
+        return queryTimer.record(() -> userIndex.search(USER_PARTITION, keyword, isDeleted, isActive, offset, limit));
+    }
+
+    // superUserId null searches the workers of every super user
+    public TrigramIndex.SearchResult searchWorkers(Long superUserId, String keyword, Boolean isDeleted,
+                                                   Boolean isActive, int offset, int limit) {
+        return queryTimer.record(() -> workerIndex.search(superUserId, keyword, isDeleted, isActive, offset, limit));
+    }
+
+    // Same gate as canSearch, but any non-blank prefix will do
+    public boolean canAutocomplete(String prefix) {
+        return enabled && ready && !TrigramIndex.normalize(prefix).isEmpty();
+    }
+
+    // Ids of non-deleted users with a key starting with the prefix, best matches first
+    public List<Long> autocompleteUsers(String prefix, int limit) {
+        return autocompleteTimer.record(() -> userPrefixes.complete(USER_PARTITION, prefix, limit));
+    }
+
+    public List<Long> autocompleteWorkers(long superUserId, String prefix, int limit) {
+        return autocompleteTimer.record(() -> workerPrefixes.complete(superUserId, prefix, limit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIdentityChanged(IdentityChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!ready) {
+            Set<Long> pending = event.type() == PrincipalType.USER ? changedUsers : changedWorkers;
+            pending.addAll(event.ids());
+            if (ready) {
+                reindex(event.type(), drain(pending)); // the build finished in between
+            }
+            return;
+        }
+        reindex(event.type(), event.ids());
+    }
+
+    private void reindex(PrincipalType type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        boolean isUser = type == PrincipalType.USER;
+        TrigramIndex index = isUser ? userIndex : workerIndex;
+        PrefixIndex prefixes = isUser ? userPrefixes : workerPrefixes;
+        List<SearchIndexRow> rows = isUser
+                ? userRepository.findSearchIndexRowsByIds(ids)
+                : workerRepository.findSearchIndexRowsByIds(ids);
+
+        Set<Long> missing = new HashSet<>(ids);
+        for (SearchIndexRow row : rows) {
+            long partition = partitionOf(isUser ? USER_PARTITION : row.ownerId());
+            Long previous = index.partitionOf(row.id());
+            if (previous != null && previous != partition) {
+                prefixes.remove(row.id(), previous); // moved to another super user
+            }
+            index(index, row, partition);
+            if (row.isDeleted()) {
+                prefixes.remove(row.id(), partition);
+            } else {
+                prefixes.upsert(row.id(), partition, row.completionKeys());
+            }
+            missing.remove(row.id());
+        }
+        for (Long id : missing) {
+            Long previous = index.partitionOf(id);
+            if (previous != null) {
+                prefixes.remove(id, previous);
+            }
+            index.remove(id);
+        }
+    }
+
+    // Initial build: every row is new to both indexes
+    private static void load(TrigramIndex index, PrefixIndex prefixes, SearchIndexRow row, Long owner) {
+        long partition = partitionOf(owner);
+        index(index, row, partition);
+        if (!row.isDeleted()) {
+            prefixes.add(row.id(), partition, row.completionKeys());
+        }
+    }
+
+    private static void index(TrigramIndex index, SearchIndexRow row, long partition) {
+        index.upsert(row.id(), partition, row.fields(), row.isDeleted(), row.isActive());
+    }
+
+    private static long partitionOf(Long owner) {
+        return owner == null ? USER_PARTITION : owner;
+    }
+
+    private static Set<Long> drain(Set<Long> ids) {
+        Set<Long> copy = new HashSet<>(ids);
+        ids.removeAll(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,227 @@
+package com.vijay.User_Master.search;
+
+import com.vijay.User_Master.Helper.BloomFilter;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every username and e-mail taken by a user or a worker.
+ *
+ * {@link #mightBeTaken} returning false means the identifier is certainly free, so the
+ * availability check and registration skip the database; only probable hits are confirmed
+ * with a query. The filter is streamed from both tables once the application is ready and
+ * extended from {@link IdentityChangedEvent} before the changing transaction commits, so a
+ * new identifier is never reported free. Renamed or deleted identifiers stay in the filter
+ * as false positives until the next rebuild (nightly, or once it outgrows its capacity).
+ * Rebuilds run one at a time; a build that was in flight when an update failed is
+ * discarded, the rebuild queued by the failure installs the filter.
+ * Keys are trimmed, lower-cased and stripped of accents like the database collation
+ * compares them; folding more values together only adds false positives.
+ *
+ * Metrics: auth.identifier.filter.checks (tag result: absent, probable) and
+ * auth.identifier.filter.false_positives.
+ */
+@Component
+@Log4j2
+public class TakenIdentifierFilter {
+
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Counter absent;
+    private final Counter probable;
+    private final Counter falsePositives;
+
+    // null until the first build finished: every identifier counts as probably taken
+    private volatile BloomFilter filter;
+    // Guarded by this: the filter being built also receives concurrent additions
+    private BloomFilter building;
+    private long capacity;
+    private long added;
+    // Bumped by every failed update, a build only installs if none happened since it started
+    private long invalidations;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TakenIdentifierFilter(UserRepository userRepository,
+                                 WorkerRepository workerRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry registry,
+                                 @Value("${app.identifier-filter.enabled:true}") boolean enabled,
+                                 @Value("${app.identifier-filter.expected-entries:1000000}") int expectedEntries,
+                                 @Value("${app.identifier-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.absent = Counter.builder("auth.identifier.filter.checks").tag("result", "absent").register(registry);
+        this.probable = Counter.builder("auth.identifier.filter.checks").tag("result", "probable").register(registry);
+        this.falsePositives = Counter.builder("auth.identifier.filter.false_positives").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuildInBackground();
+        }
+    }
+
+    // Drops the false positives left behind by renamed and deleted accounts
+    @Scheduled(cron = "${app.identifier-filter.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return false if the identifier is certainly not taken, true if the database has to decide
+     */
+    public boolean mightBeTaken(String identifier) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        boolean hit = current.mightContain(normalize(identifier));
+        (hit ? probable : absent).increment();
+        return hit;
+    }
+
+    // The database found none of the probable hits
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // Runs inside the writing transaction (or right away without one), so the identifier is in before it is visible
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIdentityChanged(IdentityChangedEvent event) {
+        if (!enabled || event.ids().isEmpty()) {
+            return;
+        }
+        try {
+            List<SearchIndexRow> rows = event.type() == PrincipalType.USER
+                    ? userRepository.findSearchIndexRowsByIds(event.ids())
+                    : workerRepository.findSearchIndexRowsByIds(event.ids());
+            rows.forEach(this::add);
+        } catch (RuntimeException ex) {
+            // Never fail the write: send every check to the database until a fresh filter is built
+            log.error("Identifier filter update failed, rebuilding", ex);
+            synchronized (this) {
+                filter = null;
+                invalidations++;
+            }
+            rebuildInBackground();
+        }
+    }
+
+    void rebuild() {
+        rebuildLock.lock();
+        try {
+            build();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        long rows = userRepository.count() + workerRepository.count();
+        // Two identifiers per row, with room for the tables to double before the next rebuild
+        long size = Math.min(Integer.MAX_VALUE, Math.max(expectedEntries, rows * 4));
+        BloomFilter next = new BloomFilter((int) size, falsePositiveRate);
+        long stamp;
+        synchronized (this) {
+            building = next;
+            stamp = invalidations;
+        }
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<SearchIndexRow> users = userRepository.streamSearchIndexRows()) {
+                    users.forEach(row -> put(next, row));
+                }
+                try (Stream<SearchIndexRow> workers = workerRepository.streamSearchIndexRows()) {
+                    workers.forEach(row -> put(next, row));
+                }
+            });
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                building = null;
+            }
+            log.error("Identifier filter build failed, availability checks stay on the database", ex);
+            return;
+        }
+        synchronized (this) {
+            building = null;
+            if (stamp != invalidations) {
+                log.warn("Identifier filter build discarded, an update failed while it ran");
+                return;
+            }
+            filter = next;
+            capacity = size;
+            added = rows * 2;
+        }
+        log.info("Identifier filter built in {} ms over {} rows ({} bits, {} hashes)",
+                System.currentTimeMillis() - start, rows, next.bitCount(), next.hashCount());
+    }
+
+    private synchronized void add(SearchIndexRow row) {
+        if (filter != null) {
+            put(filter, row);
+        }
+        if (building != null) {
+            put(building, row);
+        }
+        added += 2;
+        if (filter != null && building == null && added > capacity) {
+            building = filter; // marks a rebuild as pending until the thread installs its own filter
+            rebuildInBackground();
+        }
+    }
+
+    private void rebuildInBackground() {
+        Thread builder = new Thread(this::rebuild, "identifier-filter-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private static void put(BloomFilter target, SearchIndexRow row) {
+        if (row.username() != null) {
+            target.put(normalize(row.username()));
+        }
+        if (row.email() != null) {
+            target.put(normalize(row.email()));
+        }
+    }
+
+    static String normalize(String identifier) {
+        String folded = Normalizer.normalize(identifier.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+}
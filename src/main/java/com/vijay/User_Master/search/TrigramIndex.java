@@ -0,0 +1,275 @@
+package com.vijay.User_Master.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index for substring ({@code LIKE %kw%}) search over a few
+ * short text fields per document.
+ *
+ * Documents live in partitions (the owning super user for workers), each with its own
+ * trigram -> sorted id posting lists and read/write lock. A query is answered by
+ * intersecting the posting lists of its trigrams, smallest first, and verifying the
+ * candidates against the stored fields, so results are exact, not approximate.
+ *
+ * Results are ranked: a field equal to the query, then a field starting with it, then
+ * any substring match; ties are broken by id. Queries shorter than three characters
+ * cannot be served and must fall back to the database.
+ *
+ * Writes are serialized, reads only take the read locks of the partitions they scan.
+ */
+public class TrigramIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    public record SearchResult(List<Long> ids, int total) {
+    }
+
+    private record Doc(long partition, String[] fields, boolean deleted, Boolean active) {
+    }
+
+    private static final class Partition {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, PostingList> postings = new HashMap<>();
+    }
+
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+    public static boolean isSearchable(String query) {
+        return query != null && normalize(query).length() >= MIN_QUERY_LENGTH;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Partition the document is currently indexed in, null if it is not indexed
+    public Long partitionOf(long id) {
+        Doc doc = docs.get(id);
+        return doc == null ? null : doc.partition();
+    }
+
+    public synchronized void upsert(long id, long partition, String[] fields, boolean deleted, Boolean active) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        Doc doc = new Doc(partition, normalized, deleted, active);
+        Doc old = docs.put(id, doc);
+        if (old != null && old.partition() == partition && Arrays.equals(old.fields(), normalized)) {
+            return; // only the flags changed
+        }
+        if (old != null) {
+            unindex(id, old);
+        }
+        Partition target = partitions.computeIfAbsent(partition, p -> new Partition());
+        target.lock.writeLock().lock();
+        try {
+            for (String field : normalized) {
+                for (long trigram : trigrams(field)) {
+                    target.postings.computeIfAbsent(trigram, t -> new PostingList()).add(id);
+                }
+            }
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Doc old = docs.remove(id);
+        if (old != null) {
+            unindex(id, old);
+        }
+    }
+
+    public synchronized void clear() {
+        docs.clear();
+        partitions.clear();
+    }
+
+    /**
+     * @param partition only search this partition, or all of them when {@code null}
+     * @param deleted   keep only documents with this deleted flag, any when {@code null}
+     * @param active    keep only documents with this active flag, any when {@code null}
+     */
+    public SearchResult search(Long partition, String query, Boolean deleted, Boolean active, int offset, int limit) {
+        String q = normalize(query);
+        long[] queryTrigrams = trigrams(q);
+        if (queryTrigrams.length == 0) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+
+        // (3 - score) in the top bits, id below: sorting the keys ranks best first, then by id
+        long[] keys = new long[16];
+        int matches = 0;
+        List<Partition> scope = new ArrayList<>();
+        if (partition != null) {
+            Partition p = partitions.get(partition);
+            if (p != null) {
+                scope.add(p);
+            }
+        } else {
+            scope.addAll(partitions.values());
+        }
+
+        for (Partition p : scope) {
+            long[] candidates;
+            p.lock.readLock().lock();
+            try {
+                candidates = intersect(p, queryTrigrams);
+            } finally {
+                p.lock.readLock().unlock();
+            }
+            for (long id : candidates) {
+                Doc doc = docs.get(id);
+                if (doc == null
+                        || (partition != null && doc.partition() != partition)
+                        || (deleted != null && doc.deleted() != deleted)
+                        || (active != null && !active.equals(doc.active()))) {
+                    continue;
+                }
+                int score = score(doc, q);
+                if (score == 0) {
+                    continue; // all trigrams present but not as one substring
+                }
+                if (matches == keys.length) {
+                    keys = Arrays.copyOf(keys, matches * 2);
+                }
+                keys[matches++] = ((long) (3 - score) << 60) | id;
+            }
+        }
+
+        Arrays.sort(keys, 0, matches);
+        int from = Math.min(offset, matches);
+        int to = Math.min(from + limit, matches);
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(keys[i] & ((1L << 60) - 1));
+        }
+        return new SearchResult(ids, matches);
+    }
+
+    private void unindex(long id, Doc doc) {
+        Partition p = partitions.get(doc.partition());
+        if (p == null) {
+            return;
+        }
+        p.lock.writeLock().lock();
+        try {
+            for (String field : doc.fields()) {
+                for (long trigram : trigrams(field)) {
+                    PostingList list = p.postings.get(trigram);
+                    if (list != null && list.remove(id) && list.size == 0) {
+                        p.postings.remove(trigram);
+                    }
+                }
+            }
+        } finally {
+            p.lock.writeLock().unlock();
+        }
+    }
+
+    private static long[] intersect(Partition p, long[] queryTrigrams) {
+        PostingList[] lists = new PostingList[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            lists[i] = p.postings.get(queryTrigrams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (lists[i].contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int score(Doc doc, String q) {
+        int best = 0;
+        for (String field : doc.fields()) {
+            if (field.equals(q)) {
+                return 3;
+            }
+            if (field.startsWith(q)) {
+                best = 2;
+            } else if (best == 0 && field.contains(q)) {
+                best = 1;
+            }
+        }
+        return best;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigrams of the value, three UTF-16 chars packed into one long
+    static long[] trigrams(String value) {
+        int count = value.length() - 2;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        return Arrays.stream(result).distinct().toArray();
+    }
+
+    // Sorted, growable id list; ids mostly arrive in ascending order, so adds are appends
+    private static final class PostingList {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insertAt(-pos - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int pos, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.vijay.User_Master.service;
 import com.vijay.User_Master.config.security.model.LoginJWTResponse;
 import com.vijay.User_Master.config.security.model.LoginRequest;
 import com.vijay.User_Master.dto.UserRequest;
-import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.WorkerResponse;
 
 import com.vijay.User_Master.dto.form.ChangePasswordForm;
 
@@ -23,9 +23,11 @@ public interface AuthService {
     boolean changePassword(ChangePasswordForm form);
     boolean existsByUsernameOrEmail(String usernameOrEmail);
     boolean existsByUsernameOrEmailFields(String username, String email);
-    LoginJWTResponse login(LoginRequest req);
+    LoginJWTResponse login(LoginRequest req, String clientIp);
+    // Revokes the access token (by jti) and, if given, deletes the refresh token
+    void logout(String accessToken, String refreshToken);
     CompletableFuture<Object> registerForAdminUser(UserRequest request,String url);
-    UserResponse registerForNormalUser(UserRequest request);
+    WorkerResponse registerForNormalUser(UserRequest request);
     /*
     *            Rest Password by sending mail !
     * */
@@ -0,0 +1,36 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.dto.BulkActionRequest;
+import com.vijay.User_Master.dto.BulkActionResult;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status changes, soft delete and restore for many users or workers at once, applied
+ * chunk by chunk with set-based UPDATEs. Worker actions only reach the workers of the
+ * given super user, who must be the caller.
+ *
+ * Soft deleting or restoring users cascades to their workers the same way. Workers deleted
+ * with their super user share its deletedOn, which is how a restore tells them apart from
+ * workers that were already in the recycle bin.
+ */
+public interface BulkAccountService {
+
+    BulkActionResult updateWorkerStatus(Long superUserId, BulkActionRequest request, boolean active);
+
+    BulkActionResult softDeleteWorkers(Long superUserId, BulkActionRequest request);
+
+    BulkActionResult restoreWorkers(Long superUserId, BulkActionRequest request);
+
+    BulkActionResult updateUserStatus(BulkActionRequest request, boolean active);
+
+    BulkActionResult softDeleteUsers(BulkActionRequest request);
+
+    BulkActionResult restoreUsers(BulkActionRequest request);
+
+    // Run after the super user was soft deleted, with its deletedOn
+    int softDeleteWorkersOf(Long superUserId, LocalDateTime deletedOn);
+
+    // Run before the super user is restored, while its deletedOn is still set
+    int restoreWorkersOf(Long superUserId);
+}
@@ -0,0 +1,19 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.dto.DataFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface ExportService {
+
+    /**
+     * Every worker of a super user matching the getWorkersWithFilter filters, written as the
+     * response is sent.
+     *
+     * @throws com.vijay.User_Master.exceptions.ServiceOverloadedException if too many exports are running
+     */
+    StreamingResponseBody exportWorkers(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword,
+                                        DataFormat format);
+
+    // Same for users, with the getUsersWithFilter filters
+    StreamingResponseBody exportUsers(Boolean isDeleted, Boolean isActive, String keyword, DataFormat format);
+}
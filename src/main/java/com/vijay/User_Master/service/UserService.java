@@ -2,7 +2,10 @@ package com.vijay.User_Master.service;
 
 
 
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.SliceResponse;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
 import com.vijay.User_Master.service.generics.iCrudService;
@@ -28,6 +31,13 @@ public interface UserService extends iCrudService<UserRequest, UserResponse,Long
 
     Page<UserResponse> getUsersWithFilter(Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable);
 
+    SliceResponse<UserResponse> getUsersSlice(Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable);
+
+    CursorPageResponse<UserResponse> getUsersByCursor(Boolean isDeleted, Boolean isActive, String keyword,
+                                                      String sortBy, String sortDir, String cursor, int pageSize);
+
+    List<AutocompleteSuggestion> autocomplete(String prefix, int limit);
+
     void softDeleteUser(Long id);
 
     void permanentlyDelete(Long id);
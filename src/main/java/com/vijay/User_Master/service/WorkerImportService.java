@@ -0,0 +1,15 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.dto.DataFormat;
+import com.vijay.User_Master.dto.WorkerImportReport;
+
+import java.io.InputStream;
+
+public interface WorkerImportService {
+
+    /**
+     * Creates workers owned by the current user from an upload read row by row.
+     * Valid rows are committed in chunks, invalid or taken ones are listed in the report.
+     */
+    WorkerImportReport importWorkers(InputStream body, DataFormat format);
+}
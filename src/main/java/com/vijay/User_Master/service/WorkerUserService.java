@@ -1,7 +1,11 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.FavouriteEntryResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.PurgeJobResponse;
+import com.vijay.User_Master.dto.SliceResponse;
 import com.vijay.User_Master.dto.UserResponse;
 
 import com.vijay.User_Master.dto.WorkerResponse;
@@ -16,6 +20,8 @@ public interface WorkerUserService extends AdvancedCrudService<WorkerResponse, L
 
     
     List<WorkerResponse> findAllActiveUsers();
+
+    PurgeJobResponse getPurgeJob(Long jobId);
     PageableResponse<WorkerResponse> getAllActiveUserWithSortingSearching(int pageNumber, int pageSize, String sortBy, String sortDir);
 
     void favoriteWorkerUser(Long workerId) throws Exception;
@@ -29,6 +35,14 @@ public interface WorkerUserService extends AdvancedCrudService<WorkerResponse, L
     PageableResponse<WorkerResponse> getWorkersBySuperUserWithFilter(Long superUserId, String filter, Pageable pageable);
 
     Page<WorkerResponse> getWorkersWithFilter(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable);
+
+    SliceResponse<WorkerResponse> getWorkersSlice(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable);
+
+    CursorPageResponse<WorkerResponse> getWorkersByCursor(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword,
+                                                          String sortBy, String sortDir, String cursor, int pageSize);
+
+    List<AutocompleteSuggestion> autocomplete(Long superUserId, String prefix, int limit);
+
     void updateAccountStatus(Long userId, Boolean isActive);
 
 
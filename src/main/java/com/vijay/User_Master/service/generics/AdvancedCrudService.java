@@ -1,6 +1,7 @@
 package com.vijay.User_Master.service.generics;
 
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.PurgeJobResponse;
 import org.springframework.data.domain.Pageable;
 
 
@@ -9,7 +10,7 @@ public interface AdvancedCrudService<Res, ID> {
     void softDelete(ID id) throws Exception;// findById(id); setIsDeleted(true);  setDeletedOn(LocalDateTime.now());
     void restore(ID id) throws Exception;//findById(id) setIsDeleted(false);setDeletedOn(null);
     void hardDelete(ID id) throws Exception;
-    void emptyRecycleBin(Pageable pageable);  //findByCreatedByAndIsDeletedTrue
+    PurgeJobResponse emptyRecycleBin();  // starts a purge job over findByCreatedByAndIsDeletedTrue
     PageableResponse<Res> getRecycleBin(Pageable pageable);  //CommonUtil.getLoggedInUser().getId();findByCreatedByAndIsDeletedTrue(userId);
     Res copy(ID id) throws Exception;
     PageableResponse<Res> findAll(Pageable pageable);
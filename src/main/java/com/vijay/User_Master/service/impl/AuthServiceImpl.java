@@ -2,43 +2,56 @@ package com.vijay.User_Master.service.impl;
 
 import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.EmailUtils;
+import com.vijay.User_Master.config.security.AuthMetrics;
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.IdentityLookupIndex;
 import com.vijay.User_Master.config.security.JwtTokenProvider;
+import com.vijay.User_Master.config.security.LoginAttemptThrottle;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.config.security.TokenDenylist;
 import com.vijay.User_Master.config.security.model.LoginJWTResponse;
 import com.vijay.User_Master.config.security.model.LoginRequest;
 import com.vijay.User_Master.dto.RefreshTokenDto;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.WorkerResponse;
 import com.vijay.User_Master.dto.form.*;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.event.IdentityChangedEvent;
 import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.exceptions.UserAlreadyExistsException;
-import com.vijay.User_Master.repository.RoleRepository;
+import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
+import com.vijay.User_Master.mapper.UserMapper;
+import com.vijay.User_Master.mapper.WorkerMapper;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.search.TakenIdentifierFilter;
 import com.vijay.User_Master.service.AuthService;
 import com.vijay.User_Master.service.RefreshTokenService;
 import com.vijay.User_Master.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -50,16 +63,21 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final WorkerRepository workerRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final UserService userService;
     private final ModelMapper mapper;
-    private UserDetailsService userDetailsService;
     private JwtTokenProvider jwtTokenProvider;
     private AuthenticationManager authenticationManager;
     private EmailUtils emailUtils;
     private EmailService emailService;
     private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuthMetrics authMetrics;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final TokenDenylist tokenDenylist;
+    private final TakenIdentifierFilter takenIdentifiers;
+    private final IdentityLookupIndex identityLookup;
 
     /*
      *     **************  when user register that time need to send temp password
@@ -96,6 +114,7 @@ public class AuthServiceImpl implements AuthService {
         user.setAccountStatus(accountStatus);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(user.getId()));
         // Send a success email to the user
         String subject = "Congratulations! Your Account is Unlocked";
         String body = "Your account has been successfully unlocked. You can now log in with your new password.<br>Thank you.";
@@ -121,6 +140,7 @@ public class AuthServiceImpl implements AuthService {
         String encodedNewPassword = passwordEncoder.encode(form.getNewPassword());
         user.setPassword(encodedNewPassword);
         userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(user.getId()));
 
         log.info("Password reset successfully for user ID: {}", user.getId());
         return true;
@@ -148,108 +168,128 @@ public class AuthServiceImpl implements AuthService {
         // Check if the old password matches the user's current password
         user.setPassword(encodePasswordNewPassword);
         userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(user.getId()));
         return true;
     }
     @Override
     public boolean existsByUsernameOrEmailFields(String username, String email) {
-     return true;
+        return isTaken(username, email);
     }
     @Override
     public boolean existsByUsernameOrEmail(String usernameOrEmail) {
-        return userRepository.existsByUsername(usernameOrEmail)
-                || userRepository.existsByEmail(usernameOrEmail)
-                || workerRepository.existsByUsername(usernameOrEmail)
-                || workerRepository.existsByEmail(usernameOrEmail);
+        return isTaken(usernameOrEmail);
     }
 
-    @Override
-    public LoginJWTResponse login(LoginRequest req) {
-        Authentication authentication = authenticationManager
-                .authenticate(new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    /*
+     *  Identifiers the Bloom filter has never seen are free without a query (the common case
+     *  while typing a new name); probable hits are confirmed with one primary-key lookup in
+     *  identity_lookup, or one query over both tables while that index is not ready.
+     * */
+    private boolean isTaken(String... identifiers) {
+        List<String> probable = new ArrayList<>();
+        for (String identifier : identifiers) {
+            if (StringUtils.hasText(identifier) && takenIdentifiers.mightBeTaken(identifier)) {
+                probable.add(identifier);
+            }
+        }
+        if (probable.isEmpty()) {
+            return false;
+        }
+        boolean taken = identityLookup.isReady()
+                ? identityLookup.anyTaken(probable)
+                : userRepository.existsAnyIdentifier(probable) != 0;
+        if (!taken) {
+            takenIdentifiers.recordFalsePositive();
+        }
+        return taken;
+    }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(req.getUsernameOrEmail());
-
-        // Check if the input is an email or username
-        User user = null;
-        Worker worker = null;
-        if (isEmail(req.getUsernameOrEmail())) {
-            user = userRepository.findByEmail(req.getUsernameOrEmail());
-            worker = workerRepository.findByEmail(req.getUsernameOrEmail()).orElse(null);
-        } else {
-            user = userRepository.findByUsername(req.getUsernameOrEmail());
-            worker = workerRepository.findByEmail(req.getUsernameOrEmail()).orElse(null);
+    /*
+     *  Login pipeline: the identity is resolved exactly once (by the authentication manager,
+     *  served from the principal cache when warm) and that principal is reused for the
+     *  active-status check, the refresh token and the response body.
+     */
+    @Override
+    public LoginJWTResponse login(LoginRequest req, String clientIp) {
+        // Blocked attempts are refused before any DB or BCrypt work
+        loginAttemptThrottle.checkAllowed(req.getUsernameOrEmail(), clientIp);
+        try {
+            LoginJWTResponse response = authMetrics.recordLogin(() -> doLogin(req));
+            loginAttemptThrottle.onSuccess(req.getUsernameOrEmail());
+            return response;
+        } catch (BadCredentialsException ex) {
+            loginAttemptThrottle.onFailure(req.getUsernameOrEmail(), clientIp);
+            throw ex;
         }
+    }
 
-        if (worker != null && (worker.getAccountStatus() == null || !worker.getAccountStatus().getIsActive())) {
-            log.warn("Account status is null or inactive for worker ID: {}", worker.getId());
-            throw new BadApiRequestException("Account is not active. Please activate your account.");
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            Claims claims = jwtTokenProvider.parseAndValidate(accessToken);
+            if (claims.getId() != null) {
+                tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime());
+            } else {
+                log.warn("Access token of {} has no jti and can't be revoked before it expires", claims.getSubject());
+            }
         }
-        if (user != null && (user.getAccountStatus() == null || !user.getAccountStatus().getIsActive())) {
-            log.warn("Account status is null or inactive for user ID: {}", user.getId());
-            throw new BadApiRequestException("Account is not active. Please activate your account.");
+        if (StringUtils.hasText(refreshToken)) {
+            try {
+                refreshTokenService.invalidateRefreshToken(refreshToken);
+            } catch (TokenNotFoundException ex) {
+                log.debug("Refresh token already gone on logout");
+            }
         }
+        SecurityContextHolder.clearContext();
+    }
 
-        // Create new refresh token
-        RefreshTokenDto refreshTokenCreated = null;
-
-        if (user != null) {
-            log.info("Creating refresh token for user: {}", user.getUsername());
-            refreshTokenCreated = refreshTokenService.createRefreshToken(
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getId(),   // <-- Pass userId
-                    null            // <-- WorkerId is null
-            );
-        } else if (worker != null) {
-            log.info("Creating refresh token for worker: {}", worker.getUsername());
-            refreshTokenCreated = refreshTokenService.createRefreshToken(
-                    worker.getUsername(),
-                    worker.getEmail(),
-                    null,           // <-- UserId is null
-                    worker.getId()  // <-- Pass workerId
-            );
-        }
+    private LoginJWTResponse doLogin(LoginRequest req) {
+        Authentication authentication = authenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        if (refreshTokenCreated == null) {
-            log.error("Error creating refresh token.");
-            throw new RuntimeException("Error creating refresh token.");
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+
+        if (principal.getAccountStatus() == null || !Boolean.TRUE.equals(principal.getAccountStatus().getIsActive())) {
+            log.warn("Account status is null or inactive for {} ID: {}", principal.getType(), principal.getId());
+            throw new BadApiRequestException("Account is not active. Please activate your account.");
         }
 
+        boolean isUser = principal.getType() == PrincipalType.USER;
+        log.info("Creating refresh token for {}: {}", principal.getType(), principal.getUsername());
+        RefreshTokenDto refreshTokenCreated = refreshTokenService.createRefreshToken(
+                principal.getUsername(),
+                principal.getEmail(),
+                isUser ? principal.getId() : null,
+                isUser ? null : principal.getId()
+        );
 
         String token = jwtTokenProvider.generateToken(authentication);
 
-        UserResponse response = mapper.map(userDetails, UserResponse.class);
+        UserResponse response = UserMapper.fromPrincipal(principal);
 
-        LoginJWTResponse jwtResponse = LoginJWTResponse.builder()
+        return LoginJWTResponse.builder()
                 .jwtToken(token)
                 .user(response)
                 .refreshTokenDto(refreshTokenCreated)
                 .build();
-        return jwtResponse;
     }
 
 
 
-    private boolean isEmail(String usernameOrEmail) {
-        // Simple check to see if the string is an email
-        return usernameOrEmail.contains("@");
-    }
-
-
     @Override
     public CompletableFuture<Object> registerForAdminUser(UserRequest request, String url) {
         log.info("Attempting to create a new admin user with username: {}", request.getUsername());
         return CompletableFuture.supplyAsync(() -> {
-            if (existsByUsernameOrEmail(request.getUsername()) || existsByUsernameOrEmail(request.getEmail())) {
+            if (existsByUsernameOrEmailFields(request.getUsername(), request.getEmail())) {
                 log.error("Username '{}' or email '{}' already exists", request.getUsername(), request.getEmail());
                 throw new UserAlreadyExistsException("Username or email is already taken");
             }
             User user = mapper.map(request, User.class);
-            Role role = roleRepository.findByName("ROLE_NORMAL").orElseThrow(() -> {
+            Role role = roleRegistry.findByName("ROLE_NORMAL").orElseThrow(() -> {
                 log.error("Role 'User' not found");
                 return new BadApiRequestException("Role not found with name 'ROLE_ADMIN'");
-            });
+            }).toEntity();
             user.setRoles(Set.of(role));
             //String tempPwd= PwdUtils.generateRandomPwd();
             //user.setPassword(tempPwd);
@@ -262,6 +302,7 @@ public class AuthServiceImpl implements AuthService {
             user.setAccountStatus(accountStatus);
 
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
 
             // Send confirmation email to the new admin user
             if (!ObjectUtils.isEmpty(savedUser)) {
@@ -274,7 +315,7 @@ public class AuthServiceImpl implements AuthService {
                 return true;
             }
             log.info("Admin user with username '{}' created successfully", user.getUsername());
-            return mapper.map(user, UserResponse.class);
+            return UserMapper.toResponse(user);
         });
     }
 
@@ -301,21 +342,22 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public UserResponse registerForNormalUser(UserRequest request) {
+    public WorkerResponse registerForNormalUser(UserRequest request) {
         log.info("Attempting to create a new normal user with username: {}", request.getUsername());
-        if (existsByUsernameOrEmail(request.getUsername()) || existsByUsernameOrEmail(request.getEmail())) {
+        if (existsByUsernameOrEmailFields(request.getUsername(), request.getEmail())) {
             log.error("Username '{}' or email '{}' already exists", request.getUsername(), request.getEmail());
             throw new UserAlreadyExistsException("Username or email is already taken");
         }
         UserResponse currentUser = userService.getCurrentUser();
-        User user = mapper.map(currentUser, User.class);
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         Worker worker = mapper.map(request, Worker.class);
         worker.setPassword(passwordEncoder.encode(request.getPassword()));
 
         // Fetch the worker role from the repository
-        Role workerRole = roleRepository.findByName("ROLE_WORKER")
-                .orElseThrow(() -> new BadApiRequestException("Worker role not found."));
+        Role workerRole = roleRegistry.findByName("ROLE_WORKER")
+                .orElseThrow(() -> new BadApiRequestException("Worker role not found."))
+                .toEntity();
 
         // Initialize the roles field if it's null
         if (worker.getRoles() == null) {
@@ -325,7 +367,8 @@ public class AuthServiceImpl implements AuthService {
         worker.getRoles().add(workerRole);
         worker.setUser(user);
         workerRepository.save(worker);
-        return mapper.map(worker, UserResponse.class);
+        eventPublisher.publishEvent(IdentityChangedEvent.worker(worker.getId()));
+        return WorkerMapper.toResponse(worker);
     }
 
     /*
@@ -413,6 +456,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(encodedPassword);
         user.getAccountStatus().setPasswordResetToken(null);
         userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(uid));
         log.info("Password reset successfully for user ID: {}", uid);
     }
 
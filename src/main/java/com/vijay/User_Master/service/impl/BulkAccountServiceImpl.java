@@ -0,0 +1,337 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.Helper.CommonUtils;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.dto.BulkActionRequest;
+import com.vijay.User_Master.dto.BulkActionResult;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.AccountStatusRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.BulkAccountService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bulk actions as set-based UPDATEs. The selected rows are processed in chunks of
+ * app.bulk.chunk-size, each in its own short transaction: select the chunk's ids (owned,
+ * and in the state the action applies to), run one UPDATE per table for them, and publish
+ * one {@link IdentityChangedEvent}, which evicts cached principals and re-indexes the rows.
+ * Filter selections walk the matching rows by id, so rows that leave the filter after their
+ * chunk was updated do not shift later chunks.
+ *
+ * Soft delete and restore keep the semantics of the single-row operations: a worker's
+ * account status follows (inactive when deleted, active when restored), a user's does not.
+ * They cascade from users to their workers, in chunks of their own: workers are deleted after
+ * their super user, with the deletedOn stored for it, and restored before it, while that
+ * deletedOn still identifies them. Only users that are deleted when the cascade runs take
+ * their workers along. A bulk user soft delete also selects users that are already deleted
+ * (it changes only the others), so repeating it finishes an interrupted cascade.
+ */
+@Service
+@Log4j2
+public class BulkAccountServiceImpl implements BulkAccountService {
+
+    private enum Action {
+        ACTIVATE(null),
+        DEACTIVATE(null),
+        SOFT_DELETE(false),
+        RESTORE(true);
+
+        // isDeleted a row must have for the action to apply, null for any
+        private final Boolean requiredDeleted;
+
+        Action(Boolean requiredDeleted) {
+            this.requiredDeleted = requiredDeleted;
+        }
+    }
+
+    // Values shared by all chunks of one action
+    private record Run(PrincipalType type, Long superUserId, Action action, LocalDateTime deletedOn, Date now,
+                       Integer actor) {
+    }
+
+    private record Chunk(List<Long> ids, int affected) {
+    }
+
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final AccountStatusRepository accountStatusRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListCountCache listCountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxIds;
+
+    public BulkAccountServiceImpl(UserRepository userRepository,
+                                  WorkerRepository workerRepository,
+                                  AccountStatusRepository accountStatusRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ListCountCache listCountCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.bulk.chunk-size:500}") int chunkSize,
+                                  @Value("${app.bulk.max-ids:10000}") int maxIds) {
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.accountStatusRepository = accountStatusRepository;
+        this.eventPublisher = eventPublisher;
+        this.listCountCache = listCountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxIds = maxIds;
+    }
+
+    @Override
+    public BulkActionResult updateWorkerStatus(Long superUserId, BulkActionRequest request, boolean active) {
+        return workers(superUserId, request, active ? Action.ACTIVATE : Action.DEACTIVATE);
+    }
+
+    @Override
+    public BulkActionResult softDeleteWorkers(Long superUserId, BulkActionRequest request) {
+        return workers(superUserId, request, Action.SOFT_DELETE);
+    }
+
+    @Override
+    public BulkActionResult restoreWorkers(Long superUserId, BulkActionRequest request) {
+        return workers(superUserId, request, Action.RESTORE);
+    }
+
+    @Override
+    public BulkActionResult updateUserStatus(BulkActionRequest request, boolean active) {
+        return run(PrincipalType.USER, null, request, active ? Action.ACTIVATE : Action.DEACTIVATE);
+    }
+
+    @Override
+    public BulkActionResult softDeleteUsers(BulkActionRequest request) {
+        return run(PrincipalType.USER, null, request, Action.SOFT_DELETE);
+    }
+
+    @Override
+    public BulkActionResult restoreUsers(BulkActionRequest request) {
+        return run(PrincipalType.USER, null, request, Action.RESTORE);
+    }
+
+    // Same ownership rule as WorkerUserService.getWorkersBySuperUserId
+    private BulkActionResult workers(Long superUserId, BulkActionRequest request, Action action) {
+        if (!superUserId.equals(CommonUtils.getLoggedInUser().getId())) {
+            throw new IllegalArgumentException("You are not authorized to access this user's workers.");
+        }
+        return run(PrincipalType.WORKER, superUserId, request, action);
+    }
+
+    private BulkActionResult run(PrincipalType type, Long superUserId, BulkActionRequest request, Action action) {
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new BadApiRequestException("Give either ids or a filter");
+        }
+        // An empty filter would match every user; worker filters are bounded by the owner
+        if (type == PrincipalType.USER && request.getFilter() != null && isEmpty(request.getFilter())) {
+            throw new BadApiRequestException("A user filter needs a keyword, isDeleted or isActive");
+        }
+        if (request.getIds() != null && request.getIds().size() > maxIds) {
+            throw new BadApiRequestException("At most " + maxIds + " ids per request, use a filter for more");
+        }
+        long start = System.currentTimeMillis();
+        Run run = new Run(type, superUserId, action, LocalDateTime.now(), new Date(), actor());
+
+        int matched = 0;
+        int affected = 0;
+        if (request.getIds() != null) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> requested = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                Chunk chunk = applyChunk(run, () -> selectIds(run, requested));
+                matched += chunk.ids().size();
+                affected += chunk.affected();
+            }
+        } else {
+            BulkActionRequest.Filter filter = request.getFilter();
+            Boolean isDeleted = filter.getIsDeleted();
+            Boolean selected = selectedState(run);
+            if (selected != null && isDeleted != null && !isDeleted.equals(selected)) {
+                // e.g. restore with isDeleted=false: nothing can match
+                return result(action, 0, 0);
+            }
+            Boolean deletedState = selected != null ? selected : isDeleted;
+            String keyword = StringUtils.hasText(filter.getKeyword()) ? filter.getKeyword() : null;
+            long afterId = 0;
+            while (true) {
+                long after = afterId;
+                Chunk chunk = applyChunk(run,
+                        () -> selectIdsAfter(run, keyword, deletedState, filter.getIsActive(), after));
+                matched += chunk.ids().size();
+                affected += chunk.affected();
+                if (chunk.ids().size() < chunkSize) {
+                    break;
+                }
+                afterId = chunk.ids().get(chunk.ids().size() - 1);
+            }
+        }
+
+        listCountCache.evictPrefix(type == PrincipalType.USER ? "users|" : "workers|");
+        log.info("Bulk {} on {}s{}: {} matched, {} changed in {} ms", action, type,
+                superUserId != null ? " of user " + superUserId : "", matched, affected,
+                System.currentTimeMillis() - start);
+        return result(action, matched, affected);
+    }
+
+    @Override
+    public int softDeleteWorkersOf(Long superUserId, LocalDateTime deletedOn) {
+        return cascade(List.of(superUserId), Action.SOFT_DELETE, deletedOn, actor());
+    }
+
+    @Override
+    public int restoreWorkersOf(Long superUserId) {
+        return cascade(List.of(superUserId), Action.RESTORE, null, actor());
+    }
+
+    private Chunk applyChunk(Run run, Supplier<List<Long>> select) {
+        boolean cascades = run.type() == PrincipalType.USER
+                && (run.action() == Action.SOFT_DELETE || run.action() == Action.RESTORE);
+        if (!cascades) {
+            return transactionTemplate.execute(status -> apply(run, select.get()));
+        }
+        List<Long> ids = transactionTemplate.execute(status -> select.get());
+        if (run.action() == Action.RESTORE) {
+            cascade(ids, Action.RESTORE, null, run.actor());
+        }
+        Chunk chunk = transactionTemplate.execute(status -> apply(run, ids));
+        if (run.action() == Action.SOFT_DELETE) {
+            cascadeDeleted(ids, run.actor());
+        }
+        return chunk;
+    }
+
+    // Groups the deleted users by their stored deletedOn: the ones this run deleted share one, earlier ones keep theirs
+    private void cascadeDeleted(List<Long> superUserIds, Integer actor) {
+        if (superUserIds.isEmpty()) {
+            return;
+        }
+        for (LocalDateTime deletedOn : userRepository.findDeletedOnByIds(superUserIds)) {
+            cascade(userRepository.findIdsDeletedOn(superUserIds, deletedOn), Action.SOFT_DELETE, deletedOn, actor);
+        }
+    }
+
+    // Soft deletes or restores the workers of the given super users, chunkSize per transaction
+    private int cascade(List<Long> superUserIds, Action action, LocalDateTime deletedOn, Integer actor) {
+        if (superUserIds.isEmpty()) {
+            return 0;
+        }
+        Run run = new Run(PrincipalType.WORKER, null, action, deletedOn, new Date(), actor);
+        PageRequest limit = PageRequest.of(0, chunkSize);
+        int affected = 0;
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            Chunk chunk = transactionTemplate.execute(status -> apply(run,
+                    workerRepository.findCascadeIdsAfter(superUserIds, action.requiredDeleted, after, limit)));
+            affected += chunk.affected();
+            if (chunk.ids().size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.ids().get(chunk.ids().size() - 1);
+        }
+        if (affected > 0) {
+            listCountCache.evictPrefix("workers|");
+            log.info("{} cascaded to {} workers of {} users", action, affected, superUserIds.size());
+        }
+        return affected;
+    }
+
+    // isDeleted a selected row must have, null for any; a user soft delete also takes the deleted ones to finish their cascade
+    private static Boolean selectedState(Run run) {
+        return run.type() == PrincipalType.USER && run.action() == Action.SOFT_DELETE ? null : run.action().requiredDeleted;
+    }
+
+    private List<Long> selectIds(Run run, List<Long> requested) {
+        return run.type() == PrincipalType.USER
+                ? userRepository.findBulkIds(requested, selectedState(run), run.actor().longValue())
+                : workerRepository.findBulkIds(run.superUserId(), requested, run.action().requiredDeleted);
+    }
+
+    private List<Long> selectIdsAfter(Run run, String keyword, Boolean isDeleted, Boolean isActive, long afterId) {
+        PageRequest limit = PageRequest.of(0, chunkSize);
+        return run.type() == PrincipalType.USER
+                ? userRepository.findBulkIdsAfter(keyword, isDeleted, isActive, run.actor().longValue(), afterId, limit)
+                : workerRepository.findBulkIdsAfter(run.superUserId(), keyword, isDeleted, isActive, afterId, limit);
+    }
+
+    // Runs inside the chunk's transaction
+    private Chunk apply(Run run, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new Chunk(ids, 0);
+        }
+        boolean workers = run.type() == PrincipalType.WORKER;
+        int affected = switch (run.action()) {
+            case SOFT_DELETE -> {
+                int changed = workers
+                        ? workerRepository.softDeleteAllById(ids, run.deletedOn(), run.now(), run.actor())
+                        : userRepository.softDeleteAllById(ids, run.deletedOn());
+                if (workers) {
+                    accountStatusRepository.updateWorkerStatuses(ids, false);
+                }
+                yield changed;
+            }
+            case RESTORE -> {
+                int changed = workers
+                        ? workerRepository.restoreAllById(ids, run.now(), run.actor())
+                        : userRepository.restoreAllById(ids);
+                if (workers) {
+                    accountStatusRepository.updateWorkerStatuses(ids, true);
+                }
+                yield changed;
+            }
+            case ACTIVATE, DEACTIVATE -> updateStatuses(workers, ids, run.action() == Action.ACTIVATE);
+        };
+        eventPublisher.publishEvent(new IdentityChangedEvent(run.type(), ids));
+        return new Chunk(ids, affected);
+    }
+
+    private int updateStatuses(boolean workers, List<Long> ids, boolean active) {
+        int changed = workers
+                ? accountStatusRepository.updateWorkerStatuses(ids, active)
+                : accountStatusRepository.updateUserStatuses(ids, active);
+        // Like the single-row updateAccountStatus, principals without a status row get one
+        if (workers) {
+            List<Worker> missing = workerRepository.findAllByIdWithoutStatus(ids);
+            missing.forEach(worker -> worker.setAccountStatus(AccountStatus.builder().isActive(active).build()));
+            workerRepository.saveAll(missing);
+            return changed + missing.size();
+        }
+        List<User> missing = userRepository.findAllByIdWithoutStatus(ids);
+        missing.forEach(user -> user.setAccountStatus(AccountStatus.builder().isActive(active).build()));
+        userRepository.saveAll(missing);
+        return changed + missing.size();
+    }
+
+    private static boolean isEmpty(BulkActionRequest.Filter filter) {
+        return !StringUtils.hasText(filter.getKeyword()) && filter.getIsDeleted() == null && filter.getIsActive() == null;
+    }
+
+    private static Integer actor() {
+        return Math.toIntExact(CommonUtils.getLoggedInUser().getId());
+    }
+
+    private static BulkActionResult result(Action action, int matched, int affected) {
+        return BulkActionResult.builder()
+                .action(action.name())
+                .matched(matched)
+                .affected(affected)
+                .build();
+    }
+}
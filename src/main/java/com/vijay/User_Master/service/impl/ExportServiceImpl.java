@@ -0,0 +1,197 @@
+package com.vijay.User_Master.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.Helper.CommonUtils;
+import com.vijay.User_Master.dto.DataFormat;
+import com.vijay.User_Master.dto.UserListRow;
+import com.vijay.User_Master.dto.WorkerListRow;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.exceptions.ServiceOverloadedException;
+import com.vijay.User_Master.mapper.RoleMapper;
+import com.vijay.User_Master.mapper.UserMapper;
+import com.vijay.User_Master.mapper.WorkerMapper;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.ExportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full exports of users and workers, written while the rows are read.
+ *
+ * Rows come from a forward-only MySQL cursor (fetch size Integer.MIN_VALUE) as list
+ * projections, so nothing is buffered or attached to a persistence context and heap use
+ * does not depend on the tenant size. Each export holds one connection for its whole
+ * duration, so at most app.export.max-concurrent run at a time; the next one gets a 503.
+ * The permit is taken and released by the body itself, so a body that never runs, or one
+ * cut off by the async timeout, cannot leak it.
+ *
+ * Metrics: export.rows (tag type: users, workers).
+ */
+@Service
+@Log4j2
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<String> CSV_HEADER = List.of(
+            "id", "name", "username", "email", "phoNo", "isDeleted", "deletedOn", "isActive", "roles");
+
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore permits;
+    private final Counter exportedUsers;
+    private final Counter exportedWorkers;
+
+    public ExportServiceImpl(UserRepository userRepository,
+                             WorkerRepository workerRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry registry,
+                             @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.permits = new Semaphore(maxConcurrent);
+        this.exportedUsers = Counter.builder("export.rows").tag("type", "users").register(registry);
+        this.exportedWorkers = Counter.builder("export.rows").tag("type", "workers").register(registry);
+    }
+
+    @Override
+    public StreamingResponseBody exportWorkers(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword,
+                                               DataFormat format) {
+        if (!superUserId.equals(CommonUtils.getLoggedInUser().getId())) {
+            throw new IllegalArgumentException("You are not authorized to access this user's workers.");
+        }
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        return export("workers", format, exportedWorkers,
+                () -> workerRepository.streamListRows(superUserId, search, isDeleted, isActive),
+                WorkerMapper::toResponse,
+                row -> Arrays.asList(row.id(), row.name(), row.username(), row.email(), row.phoNo(),
+                        row.isDeleted(), row.deletedOn(), row.isActive(), roleNames(row.roles())));
+    }
+
+    @Override
+    public StreamingResponseBody exportUsers(Boolean isDeleted, Boolean isActive, String keyword, DataFormat format) {
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        return export("users", format, exportedUsers,
+                () -> userRepository.streamListRows(search, isDeleted, isActive),
+                UserMapper::toResponse,
+                row -> Arrays.asList(row.id(), row.name(), row.username(), row.email(), row.phoNo(),
+                        row.isDeleted(), row.deletedOn(), row.isActive(), roleNames(row.roles())));
+    }
+
+    private <R> StreamingResponseBody export(String type, DataFormat format, Counter exported,
+                                             Supplier<Stream<R>> query,
+                                             Function<R, ?> toJson,
+                                             Function<R, List<Object>> toCsv) {
+        // Early 503 on the request thread; the body still has to win its own permit
+        if (permits.availablePermits() == 0) {
+            throw new ServiceOverloadedException("Too many exports running");
+        }
+        return out -> {
+            // Nothing is written yet, so the exception still turns into a 503
+            if (!permits.tryAcquire()) {
+                throw new ServiceOverloadedException("Too many exports running");
+            }
+            long start = System.currentTimeMillis();
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                Long rows = readOnlyTx.execute(status -> {
+                    try (Stream<R> stream = query.get()) {
+                        return format == DataFormat.CSV
+                                ? writeCsv(stream.iterator(), toCsv, writer, exported)
+                                : writeNdjson(stream.iterator(), toJson, writer, exported);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                writer.flush();
+                log.info("Exported {} {} as {} in {} ms", rows, type, format, System.currentTimeMillis() - start);
+            } catch (UncheckedIOException ex) {
+                // Usually the client went away, the cursor is closed with the transaction
+                log.warn("Export of {} aborted after {} ms: {}", type, System.currentTimeMillis() - start,
+                        ex.getCause().getMessage());
+                throw ex.getCause();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    private <R> long writeNdjson(Iterator<R> rows, Function<R, ?> toJson, Writer writer, Counter exported)
+            throws IOException {
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(toJson.apply(rows.next())));
+            writer.write('\n');
+            count++;
+            exported.increment();
+        }
+        return count;
+    }
+
+    private static <R> long writeCsv(Iterator<R> rows, Function<R, List<Object>> toCsv, Writer writer,
+                                     Counter exported) throws IOException {
+        writeCsvLine(CSV_HEADER, writer);
+        long count = 0;
+        while (rows.hasNext()) {
+            writeCsvLine(toCsv.apply(rows.next()), writer);
+            count++;
+            exported.increment();
+        }
+        return count;
+    }
+
+    private static void writeCsvLine(List<?> values, Writer writer) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, double embedded quotes
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String roleNames(String aggregate) {
+        return RoleMapper.fromAggregate(aggregate).stream()
+                .map(Role::getName)
+                .sorted()
+                .collect(Collectors.joining(";"));
+    }
+}
@@ -3,12 +3,14 @@ package com.vijay.User_Master.service.impl;
 import com.vijay.User_Master.dto.form.EmailForm;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.event.IdentityChangedEvent;
 import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.service.HomeService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 
@@ -19,6 +21,7 @@ public class HomeServiceImpl implements HomeService {
 
     private UserRepository userRepo;
     private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public Boolean verifyAccount(Long uid, String verificationCode) throws Exception {
@@ -37,6 +40,7 @@ public class HomeServiceImpl implements HomeService {
             status.setIsActive(true);
             status.setVerificationCode(null);
             User verifiedUser = userRepo.save(user);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(uid));
             sendMailSuccessMessageToUser(verifiedUser);
             log.info("Account verification successful for user ID: {}", uid);
             return true;
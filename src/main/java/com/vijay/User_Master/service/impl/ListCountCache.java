@@ -0,0 +1,76 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.Helper.ExpiringCache;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Short-TTL cache of list totals, keyed by the list and its filters, so paging through a
+ * listing does not re-run the same {@code COUNT(*)} (and its {@code LIKE %kw%} scan) for
+ * every page.
+ *
+ * Totals at or above {@code approximate-above} rows are kept for the longer
+ * {@code approximate-ttl-seconds} and reported as approximate: on very large tenants an
+ * exact, fresh count is not worth its cost. Metrics are published under {@code list.count.cache.*}.
+ *
+ * Every write that publishes an {@link IdentityChangedEvent} drops the exact totals of its
+ * list once it commits; approximate totals are left to expire, so they may be off by the
+ * writes of up to {@code approximate-ttl-seconds}. Bulk changes drop both (see evictPrefix).
+ */
+@Component
+public class ListCountCache {
+
+    public record Count(long total, boolean approximate) {
+    }
+
+    private final ExpiringCache<String, Count> cache;
+    private final long ttlMillis;
+    private final long approximateAbove;
+    private final long approximateTtlMillis;
+
+    public ListCountCache(MeterRegistry meterRegistry,
+                          @Value("${app.list.count-cache.max-size:10000}") int maxSize,
+                          @Value("${app.list.count-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.list.count-cache.approximate-above:0}") long approximateAbove,
+                          @Value("${app.list.count-cache.approximate-ttl-seconds:600}") long approximateTtlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.approximateAbove = approximateAbove;
+        this.approximateTtlMillis = approximateTtlSeconds * 1000;
+        this.cache = new ExpiringCache<>(maxSize, Math.max(ttlMillis, approximateTtlMillis));
+        this.cache.registerMetrics(meterRegistry, "list.count.cache");
+    }
+
+    public Count count(String key, LongSupplier exactCount) {
+        Count cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long total = exactCount.getAsLong();
+        boolean large = approximateAbove > 0 && total >= approximateAbove;
+        Count count = new Count(total, large);
+        cache.put(key, count, System.currentTimeMillis() + (large ? approximateTtlMillis : ttlMillis));
+        return count;
+    }
+
+    // Last key segment: no keyword stays empty, a keyword is prefixed, so null and the literal "null" differ
+    public static String keywordSegment(String keyword) {
+        return keyword == null ? "" : "=" + keyword;
+    }
+
+    // Drops every total of one list (key prefix), e.g. after a bulk change moved many rows between filters
+    public void evictPrefix(String prefix) {
+        cache.invalidateIf((key, count) -> key.startsWith(prefix));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIdentityChanged(IdentityChangedEvent event) {
+        String prefix = event.type() == PrincipalType.USER ? "users|" : "workers|";
+        cache.invalidateIf((key, count) -> !count.approximate() && key.startsWith(prefix));
+    }
+}
@@ -1,28 +1,29 @@
 package com.vijay.User_Master.service.impl;
 
-import com.vijay.User_Master.config.security.CustomUserDetailsService;
+import com.vijay.User_Master.Helper.TokenHashUtil;
+import com.vijay.User_Master.config.security.AuthMetrics;
+import com.vijay.User_Master.config.security.CustomUserDetails;
 import com.vijay.User_Master.config.security.JwtTokenProvider;
 import com.vijay.User_Master.dto.*;
 import com.vijay.User_Master.entity.RefreshToken;
-import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
 import com.vijay.User_Master.exceptions.exception.TokenExpiredException;
 import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
+import com.vijay.User_Master.mapper.RefreshTokenMapper;
+import com.vijay.User_Master.mapper.UserMapper;
+import com.vijay.User_Master.mapper.WorkerMapper;
 import com.vijay.User_Master.repository.RefreshTokenRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
 import com.vijay.User_Master.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Set;
-import java.util.UUID;
 
 @Slf4j
 @Service
@@ -33,51 +34,112 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     private final UserRepository userRepository;
     private final WorkerRepository workerRepository;
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
-    private final ModelMapper modelMapper;
+    private final AuthMetrics authMetrics;
 
     private static final long REFRESH_TOKEN_EXPIRATION_DAYS = 7;
+    private static final int REFRESH_TOKEN_BYTES = 32;
 
+    @Value("${app.auth.refresh-token.max-sessions:5}")
+    private int maxSessions;
 
+
+    /*
+     *  Rotation in one fetch: the token is loaded together with its owner, and that
+     *  entity is reused for the access token, the rotated refresh token and the response.
+     *  The row is rotated in place with a conditional update, so a token presented
+     *  twice (two tabs racing) is only honoured once.
+     */
     @Override
+    @Transactional
     public JwtResponse refreshAccessToken(RefreshTokenRequest request) {
-        RefreshTokenDto verifiedToken = verifyRefreshToken(
-                RefreshTokenDto.builder().refreshToken(request.getRefreshToken()).build());
+        return authMetrics.recordRefresh(() -> rotate(request));
+    }
 
-        TokenUserDetails userDetails = resolveTokenUserDetails(verifiedToken);
+    private JwtResponse rotate(RefreshTokenRequest request) {
+        if (request == null || request.getRefreshToken() == null) {
+            throw new TokenNotFoundException("Refresh token is null");
+        }
+        String presentedHash = TokenHashUtil.sha256(request.getRefreshToken());
+        RefreshToken stored = refreshTokenRepository.findWithOwnerByTokenHash(presentedHash)
+                .orElseThrow(() -> new TokenNotFoundException("Refresh token not found"));
 
-        String newAccessToken = generateAccessToken(userDetails);
-        RefreshTokenDto newRefreshToken = createRefreshToken(
-                userDetails.getUsername(),
-                userDetails.getEmail(),
-                userDetails.getUserId(),
-                userDetails.getWorkerId()
-        );
+        // Expired rows are left to RefreshTokenSweeper
+        if (stored.getExpiryDate().isBefore(Instant.now())) {
+            throw new TokenExpiredException("Refresh token expired");
+        }
+        if (!(stored.getUser() != null ^ stored.getWorker() != null)) {
+            throw new InvalidTokenException("Invalid token type configuration");
+        }
 
-        return buildJwtResponse(newAccessToken, newRefreshToken, userDetails);
+        CustomUserDetails principal = stored.getUser() != null
+                ? CustomUserDetails.build(stored.getUser())
+                : CustomUserDetails.build(stored.getWorker());
+        if (principal.isDeleted() || principal.getAccountStatus() == null
+                || !Boolean.TRUE.equals(principal.getAccountStatus().getIsActive())) {
+            throw new InvalidTokenException("Account is not active");
+        }
+
+        String newToken = TokenHashUtil.randomToken(REFRESH_TOKEN_BYTES);
+        Instant expiryDate = newExpiryDate();
+        if (refreshTokenRepository.rotate(stored.getId(), presentedHash, TokenHashUtil.sha256(newToken), expiryDate) == 0) {
+            throw new TokenNotFoundException("Refresh token already used");
+        }
+
+        String accessToken = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        RefreshTokenDto refreshTokenDto = RefreshTokenDto.builder()
+                .id(stored.getId())
+                .refreshToken(newToken)
+                .expiryDate(expiryDate)
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .userId(stored.getUser() != null ? principal.getId() : null)
+                .workerId(stored.getWorker() != null ? principal.getId() : null)
+                .build();
+
+        Object response = stored.getUser() != null
+                ? UserMapper.toResponse(stored.getUser())
+                : WorkerMapper.toResponse(stored.getWorker());
+
+        return JwtResponse.builder()
+                .jwtToken(accessToken)
+                .refreshTokenDto(refreshTokenDto)
+                .principal(response)
+                .build();
     }
 
+    /*
+     *  New session for the identity: one insert plus one delete that trims the owner's
+     *  sessions to the configured cap (oldest first). Only the token hash is stored.
+     */
     @Override
+    @Transactional
     public RefreshTokenDto createRefreshToken(String username, String email, Long userId, Long workerId) {
         log.info("Creating refresh token for: {}", username);
 
-        if (userId != null) {
-            refreshTokenRepository.deleteByUserId(userId);
-        } else if (workerId != null) {
-            refreshTokenRepository.deleteByWorkerId(workerId);
+        if (userId == null && workerId == null) {
+            throw new InvalidTokenException("Refresh token needs a user or a worker");
         }
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusSeconds(REFRESH_TOKEN_EXPIRATION_DAYS * 24 * 60 * 60))
+        String token = TokenHashUtil.randomToken(REFRESH_TOKEN_BYTES);
+        Instant expiryDate = newExpiryDate();
+        RefreshToken saved = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenHashUtil.sha256(token))
+                .expiryDate(expiryDate)
                 .username(username)
                 .email(email)
                 .user(userId != null ? userRepository.getReferenceById(userId) : null)
-                .worker(workerId != null ? workerRepository.getReferenceById(workerId) : null)
-                .build();
+                .worker(userId == null ? workerRepository.getReferenceById(workerId) : null)
+                .build());
 
-        return modelMapper.map(refreshTokenRepository.save(refreshToken), RefreshTokenDto.class);
+        if (userId != null) {
+            refreshTokenRepository.trimUserSessions(userId, maxSessions);
+        } else {
+            refreshTokenRepository.trimWorkerSessions(workerId, maxSessions);
+        }
 
+        return RefreshTokenMapper.toDto(saved, token);
     }
 
     @Override
@@ -87,11 +149,10 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
             throw new TokenNotFoundException("Refresh token is null");
         }
 
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenDto.getRefreshToken())
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(refreshTokenDto.getRefreshToken()))
                 .orElseThrow(() -> new TokenNotFoundException("Refresh token not found"));
 
         if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(refreshToken);
             throw new TokenExpiredException("Refresh token expired");
         }
 
@@ -99,77 +160,19 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
             throw new InvalidTokenException("Invalid token type configuration");
         }
 
-        return modelMapper.map(refreshToken, RefreshTokenDto.class);
+        return RefreshTokenMapper.toDto(refreshToken, refreshTokenDto.getRefreshToken());
     }
 
     @Override
     @Transactional
     public void invalidateRefreshToken(String token) {
-        refreshTokenRepository.findByToken(token)
-                .ifPresentOrElse(
-                        refreshTokenRepository::delete,
-                        () -> {
-                            throw new TokenNotFoundException("Token not found");
-                        }
-                );
-    }
-
-    private TokenUserDetails resolveTokenUserDetails(RefreshTokenDto verifiedToken) {
-        if (verifiedToken.getUserId() != null) {
-            return userRepository.findById(verifiedToken.getUserId())
-                    .map(user -> new TokenUserDetails(
-                            user.getUsername(),
-                            user.getEmail(),
-                            user.getId(),
-                            null,
-                            user.getRoles()
-                    ))
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", verifiedToken.getUserId()));
-        } else {
-            return workerRepository.findById(verifiedToken.getWorkerId())
-                    .map(worker -> new TokenUserDetails(
-                            worker.getUsername(),
-                            worker.getEmail(),
-                            null,
-                            worker.getId(),
-                            worker.getRoles()
-                    ))
-                    .orElseThrow(() -> new ResourceNotFoundException("Worker", "id", verifiedToken.getWorkerId()));
+        if (token == null || refreshTokenRepository.deleteByTokenHash(TokenHashUtil.sha256(token)) == 0) {
+            throw new TokenNotFoundException("Token not found");
         }
     }
 
-    private String generateAccessToken(TokenUserDetails userDetails) {
-        UserDetails springUserDetails = customUserDetailsService.loadUserByUsername(userDetails.getUsername());
-        return jwtTokenProvider.generateToken(
-                new UsernamePasswordAuthenticationToken(
-                        springUserDetails,
-                        null,
-                        springUserDetails.getAuthorities()
-                )
-        );
+    private static Instant newExpiryDate() {
+        return Instant.now().plusSeconds(REFRESH_TOKEN_EXPIRATION_DAYS * 24 * 60 * 60);
     }
 
-    private JwtResponse buildJwtResponse(String accessToken, RefreshTokenDto refreshToken, TokenUserDetails userDetails) {
-        return JwtResponse.builder()
-                .jwtToken(accessToken)
-                .refreshTokenDto(refreshToken)
-                .principal(buildPrincipalResponse(userDetails))
-                .build();
-    }
-
-    private Object buildPrincipalResponse(TokenUserDetails userDetails) {
-        if (userDetails.getUserId() != null) {
-            return modelMapper.map(
-                    userRepository.findById(userDetails.getUserId())
-                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userDetails.getUserId())),
-                    UserResponse.class
-            );
-        } else {
-            return modelMapper.map(
-                    workerRepository.findById(userDetails.getWorkerId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Worker", "id", userDetails.getWorkerId())),
-                    WorkerResponse.class
-            );
-        }
-    }
 }
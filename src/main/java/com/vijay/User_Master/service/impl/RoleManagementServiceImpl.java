@@ -3,17 +3,23 @@ package com.vijay.User_Master.service.impl;
 import com.vijay.User_Master.dto.RoleRequest;
 import com.vijay.User_Master.dto.RoleResponse;
 import com.vijay.User_Master.dto.RoleUpdateRequest;
-import com.vijay.User_Master.dto.UserRoleRequest;
+import com.vijay.User_Master.dto.RoleView;
 import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.UserRoleRequest;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.event.RoleChangedEvent;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
+import com.vijay.User_Master.mapper.RoleMapper;
+import com.vijay.User_Master.mapper.UserMapper;
 import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.service.RoleManagementService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,8 +39,10 @@ import java.util.stream.Collectors;
 public class RoleManagementServiceImpl implements RoleManagementService {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ============= BASIC ROLE CRUD OPERATIONS =============
 
@@ -53,32 +61,32 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         role.setDeleted(false);
         
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(savedRole.getId()));
         log.info("Role created successfully with ID: {} and name: {}", savedRole.getId(), savedRole.getName());
         
-        return mapper.map(savedRole, RoleResponse.class);
+        return RoleMapper.toResponse(savedRole);
     }
 
     @Override
     public RoleResponse getRoleById(Long roleId) {
         log.info("Fetching role with ID: {}", roleId);
         
-        Role role = roleRepository.findById(roleId)
+        RoleView role = roleRegistry.findById(roleId)
                 .orElseThrow(() -> {
                     log.error("Role with ID '{}' not found", roleId);
                     return new ResourceNotFoundException("Role", "id", roleId);
                 });
         
-        log.info("Role with ID '{}' found: {}", roleId, role.getName());
-        return mapper.map(role, RoleResponse.class);
+        log.info("Role with ID '{}' found: {}", roleId, role.name());
+        return RoleMapper.toResponse(role);
     }
 
     @Override
     public List<RoleResponse> getAllRoles() {
         log.info("Fetching all roles");
         
-        List<Role> roles = roleRepository.findAll();
-        List<RoleResponse> roleResponses = roles.stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+        List<RoleResponse> roleResponses = roleRegistry.findAll().stream()
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toList());
         
         log.info("Fetched {} roles successfully", roleResponses.size());
@@ -109,9 +117,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         }
         
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         log.info("Role with ID '{}' updated successfully", roleId);
         
-        return mapper.map(savedRole, RoleResponse.class);
+        return RoleMapper.toResponse(savedRole);
     }
 
     @Override
@@ -129,6 +138,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         role.setDeleted(true);
         role.setActive(false);
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         
         log.info("Role with ID '{}' deleted successfully", roleId);
         return true;
@@ -140,12 +150,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     public List<RoleResponse> getAllActiveRoles() {
         log.info("Fetching all active roles");
         
-        List<Role> activeRoles = roleRepository.findAll().stream()
-                .filter(role -> role.isActive() && !role.isDeleted())
-                .collect(Collectors.toList());
-        
-        List<RoleResponse> roleResponses = activeRoles.stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+        List<RoleResponse> roleResponses = roleRegistry.findActive().stream()
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toList());
         
         log.info("Fetched {} active roles", roleResponses.size());
@@ -176,9 +182,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         }
         
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         log.info("Role details updated successfully for role ID: {}", roleId);
         
-        return mapper.map(savedRole, RoleResponse.class);
+        return RoleMapper.toResponse(savedRole);
     }
 
     @Override
@@ -191,6 +198,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         
         role.setActive(true);
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         
         log.info("Role with ID: {} activated successfully", roleId);
     }
@@ -205,6 +213,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         
         role.setActive(false);
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         
         log.info("Role with ID: {} deactivated successfully", roleId);
     }
@@ -236,9 +245,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         user.getRoles().addAll(rolesToAssign);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles assigned successfully to user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -260,9 +270,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         }
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles removed successfully from user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -287,9 +298,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         user.setRoles(newRoles);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles replaced successfully for user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -304,7 +316,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         }
         
         Set<RoleResponse> userRoles = user.getRoles().stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toSet());
         
         log.info("Fetched {} roles for user with ID: {}", userRoles.size(), userId);
@@ -315,14 +327,14 @@ public class RoleManagementServiceImpl implements RoleManagementService {
 
     @Override
     public boolean roleExists(Long roleId) {
-        boolean exists = roleRepository.existsById(roleId);
+        boolean exists = roleRegistry.findById(roleId).isPresent();
         log.debug("Role existence check for ID '{}': {}", roleId, exists);
         return exists;
     }
 
     @Override
     public boolean roleExistsByName(String roleName) {
-        boolean exists = roleRepository.findByName(roleName).isPresent();
+        boolean exists = roleRegistry.findByName(roleName).isPresent();
         log.debug("Role existence check for name '{}': {}", roleName, exists);
         return exists;
     }
@@ -331,12 +343,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     public List<RoleResponse> getActiveRolesByIds(Set<Long> roleIds) {
         log.info("Fetching active roles by IDs: {}", roleIds);
         
-        List<Role> roles = roleRepository.findAllById(roleIds).stream()
-                .filter(role -> role.isActive() && !role.isDeleted())
-                .collect(Collectors.toList());
-        
-        return roles.stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+        return roleRegistry.findActiveByIds(roleIds).stream()
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -344,8 +352,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     public List<RoleResponse> getRolesByName(String roleName) {
         log.info("Fetching roles by name: {}", roleName);
         
-        return roleRepository.findByName(roleName)
-                .map(role -> mapper.map(role, RoleResponse.class))
+        return roleRegistry.findByName(roleName)
+                .map(RoleMapper::toResponse)
                 .map(List::of)
                 .orElse(List.of());
     }
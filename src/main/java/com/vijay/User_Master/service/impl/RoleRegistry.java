@@ -0,0 +1,149 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.dto.RoleView;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.event.RoleChangedEvent;
+import com.vijay.User_Master.repository.RoleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of the roles table, so resolving a role by id or name and listing the
+ * active roles does no I/O.
+ *
+ * The registry holds one immutable snapshot, indexed by id and by name (compared
+ * case-insensitively, like the column), with the active roles precomputed. It is reloaded
+ * after every {@link RoleChangedEvent} commits, and on a long interval for changes made
+ * outside this application. Every reload takes a version number before it reads the table
+ * and is installed only over an older snapshot, so a slow reload can never replace one that
+ * already contains a later change.
+ *
+ * Metrics: roles.registry.version.
+ */
+@Component
+@Log4j2
+public class RoleRegistry {
+
+    private record Snapshot(long version, List<RoleView> all, Map<Long, RoleView> byId,
+                            Map<String, RoleView> byName, List<RoleView> active) {
+
+        static Snapshot of(long version, List<Role> roles) {
+            List<RoleView> all = roles.stream()
+                    .map(role -> new RoleView(role.getId(), role.getName(), role.isActive(), role.isDeleted()))
+                    .toList();
+            Map<Long, RoleView> byId = new HashMap<>();
+            Map<String, RoleView> byName = new HashMap<>();
+            for (RoleView view : all) {
+                byId.put(view.id(), view);
+                byName.put(key(view.name()), view);
+            }
+            List<RoleView> active = all.stream().filter(view -> view.active() && !view.deleted()).toList();
+            return new Snapshot(version, all, Map.copyOf(byId), Map.copyOf(byName), active);
+        }
+    }
+
+    private final RoleRepository roleRepository;
+    private final TransactionTemplate readTx;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry registry) {
+        this.roleRepository = roleRepository;
+        // Runs after a commit as well, where the finished transaction is still bound
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+        Gauge.builder("roles.registry.version", this, RoleRegistry::version).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.roles.registry.refresh-interval-ms:600000}",
+            initialDelayString = "${app.roles.registry.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        log.debug("Role {} changed, reloading the role registry", event.roleId());
+        refresh();
+    }
+
+    public Optional<RoleView> findById(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    public Optional<RoleView> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(current().byName().get(key(name)));
+    }
+
+    // In id order
+    public List<RoleView> findAll() {
+        return current().all();
+    }
+
+    // Active and not deleted, in id order
+    public List<RoleView> findActive() {
+        return current().active();
+    }
+
+    public List<RoleView> findActiveByIds(Collection<Long> ids) {
+        return current().active().stream().filter(role -> ids.contains(role.id())).toList();
+    }
+
+    public long version() {
+        Snapshot current = snapshot.get();
+        return current == null ? 0 : current.version();
+    }
+
+    void refresh() {
+        long version = versions.incrementAndGet();
+        List<Role> roles = readTx.execute(status -> roleRepository.findAll(Sort.by("id")));
+        Snapshot next = Snapshot.of(version, roles);
+        Snapshot installed = snapshot.accumulateAndGet(next,
+                (current, candidate) -> current == null || current.version() < candidate.version() ? candidate : current);
+        if (installed == next) {
+            log.info("Role registry loaded {} roles ({} active), version {}",
+                    next.byId().size(), next.active().size(), version);
+        }
+    }
+
+    // Lookups before the first load (e.g. from startup runners) load it themselves
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,17 +3,22 @@ package com.vijay.User_Master.service.impl;
 import com.vijay.User_Master.dto.RoleRequest;
 import com.vijay.User_Master.dto.RoleResponse;
 import com.vijay.User_Master.dto.RoleUpdateRequest;
-import com.vijay.User_Master.dto.UserRoleRequest;
 import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.UserRoleRequest;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.event.RoleChangedEvent;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
+import com.vijay.User_Master.mapper.RoleMapper;
+import com.vijay.User_Master.mapper.UserMapper;
 import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.service.RoleService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
@@ -28,8 +33,10 @@ import java.util.stream.Collectors;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Create Role For Users
     @Override
@@ -38,7 +45,8 @@ public class RoleServiceImpl implements RoleService {
             Role role = mapper.map(request, Role.class);
             role.setActive(true);
             roleRepository.save(role);
-            return mapper.map(role,RoleResponse.class);
+            eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
+            return RoleMapper.toResponse(role);
         });
     }
 
@@ -60,7 +68,7 @@ public class RoleServiceImpl implements RoleService {
             log.info("Role with ID '{}' found", id);
 
             // Map and return the Role as RoleResponse
-            return mapper.map(role, RoleResponse.class);
+            return RoleMapper.toResponse(role);
         });
     }
 
@@ -74,7 +82,7 @@ public class RoleServiceImpl implements RoleService {
             // Fetch all roles and map them to RoleResponse
             Set<Role> roles = new HashSet<>(roleRepository.findAll());
             Set<RoleResponse> roleResponses = roles.stream()
-                    .map(role -> mapper.map(role, RoleResponse.class))
+                    .map(RoleMapper::toResponse)
                     .collect(Collectors.toSet());
 
             // Log success
@@ -104,12 +112,13 @@ public class RoleServiceImpl implements RoleService {
             }
             // Save the updated role
             roleRepository.save(role);
+            eventPublisher.publishEvent(new RoleChangedEvent(id));
 
             // Log success
             log.info("Role with ID '{}' updated successfully", id);
 
             // Map and return the updated Role as RoleResponse
-            return mapper.map(role, RoleResponse.class);
+            return RoleMapper.toResponse(role);
         });
     }
 
@@ -129,6 +138,7 @@ public class RoleServiceImpl implements RoleService {
 
             // Delete the role
             roleRepository.delete(role);
+            eventPublisher.publishEvent(new RoleChangedEvent(id));
 
             // Log success
             log.info("Role with ID '{}' deleted successfully", id);
@@ -142,12 +152,8 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public List<RoleResponse> getAllActiveRoles() {
         log.info("Fetching all active roles");
-        List<Role> activeRoles = roleRepository.findAll().stream()
-                .filter(role -> role.isActive() && !role.isDeleted())
-                .collect(Collectors.toList());
-        
-        return activeRoles.stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+        return roleRegistry.findActive().stream()
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -166,9 +172,10 @@ public class RoleServiceImpl implements RoleService {
         }
         
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         log.info("Role with ID: {} updated successfully", roleId);
         
-        return mapper.map(savedRole, RoleResponse.class);
+        return RoleMapper.toResponse(savedRole);
     }
 
     @Override
@@ -180,6 +187,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.setActive(true);
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         
         log.info("Role with ID: {} activated successfully", roleId);
     }
@@ -193,6 +201,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.setActive(false);
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
         
         log.info("Role with ID: {} deactivated successfully", roleId);
     }
@@ -216,9 +225,10 @@ public class RoleServiceImpl implements RoleService {
         user.getRoles().addAll(rolesToAssign);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles assigned successfully to user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -239,9 +249,10 @@ public class RoleServiceImpl implements RoleService {
         }
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles removed successfully from user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -260,9 +271,10 @@ public class RoleServiceImpl implements RoleService {
         user.setRoles(newRoles);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(savedUser.getId()));
         log.info("Roles replaced successfully for user with ID: {}", userRoleRequest.getUserId());
         
-        return mapper.map(savedUser, UserResponse.class);
+        return UserMapper.toResponse(savedUser);
     }
 
     @Override
@@ -277,17 +289,17 @@ public class RoleServiceImpl implements RoleService {
         }
         
         return user.getRoles().stream()
-                .map(role -> mapper.map(role, RoleResponse.class))
+                .map(RoleMapper::toResponse)
                 .collect(Collectors.toSet());
     }
 
     @Override
     public boolean roleExists(Long roleId) {
-        return roleRepository.existsById(roleId);
+        return roleRegistry.findById(roleId).isPresent();
     }
 
     @Override
     public boolean roleExistsByName(String roleName) {
-        return roleRepository.findByName(roleName).isPresent();
+        return roleRegistry.findByName(roleName).isPresent();
     }
 }
@@ -1,30 +1,45 @@
 package com.vijay.User_Master.service.impl;
 
 import com.vijay.User_Master.Helper.Helper;
+import com.vijay.User_Master.Helper.KeysetCursor;
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.SliceResponse;
+import com.vijay.User_Master.dto.UserListRow;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.event.IdentityChangedEvent;
 import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.exceptions.UserAlreadyExistsException;
+import com.vijay.User_Master.mapper.SuggestionMapper;
+import com.vijay.User_Master.mapper.UserMapper;
 import com.vijay.User_Master.repository.AccountStatusRepository;
-import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.search.SearchIndexRow;
+import com.vijay.User_Master.search.SearchIndexService;
+import com.vijay.User_Master.search.TrigramIndex;
+import com.vijay.User_Master.service.BulkAccountService;
 import com.vijay.User_Master.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,6 +49,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -46,11 +62,15 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final UserDetailsService userDetailsService;
     private final AccountStatusRepository accountStatusRepository;
     private final ModelMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListCountCache listCountCache;
+    private final SearchIndexService searchIndex;
+    private final BulkAccountService bulkAccountService;
 
 
     @Transactional
@@ -67,6 +87,7 @@ public class UserServiceImpl implements UserService {
         user.setAccountStatus(accountStatus); // assign to user
 
         userRepository.save(user); // cascade should handle persist/update
+        eventPublisher.publishEvent(IdentityChangedEvent.user(userId));
     }
 
 
@@ -77,8 +98,7 @@ public class UserServiceImpl implements UserService {
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
-        Page<User> usersPage = userRepository.findAllByIsDeletedFalse(pageable);
-        return Helper.getPageableResponse(usersPage, UserResponse.class);
+        return listUsers(null, false, null, pageable);
     }
 
     @Override
@@ -87,8 +107,7 @@ public class UserServiceImpl implements UserService {
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
-        Page<User> usersPage = userRepository.findAllByIsDeletedTrue(pageable);
-        return Helper.getPageableResponse(usersPage, UserResponse.class);
+        return listUsers(null, true, null, pageable);
     }
 
     @Override
@@ -102,61 +121,113 @@ public class UserServiceImpl implements UserService {
 
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        Specification<User> spec = Specification.where(null);
+        return listUsers(null, isDeleted, isActive, pageable);
+    }
 
-        if (isDeleted != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("isDeleted"), isDeleted));
+    @Override
+    public Page<UserResponse> getUsersWithFilter(Boolean isDeleted, Boolean isActive,String keyword, Pageable pageable) {
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        if (searchIndex.canSearch(search)) {
+            // Ranked ids from the trigram index, hydrated with one IN query
+            TrigramIndex.SearchResult result = searchIndex.searchUsers(search, isDeleted, isActive,
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            List<UserListRow> rows = Helper.loadInOrder(result.ids(), userRepository::findListRowsByIds, UserListRow::id);
+            return new PageImpl<>(rows, pageable, result.total()).map(UserMapper::toResponse);
         }
+        Slice<UserListRow> users = userRepository.findListRows(search, isDeleted, isActive, pageable);
+        ListCountCache.Count count = countUsers(search, isDeleted, isActive);
+        return new PageImpl<>(users.getContent(), pageable, count.total()).map(UserMapper::toResponse);
+    }
 
-        if (isActive != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.join("accountStatus").get("isActive"), isActive));
+    @Override
+    public SliceResponse<UserResponse> getUsersSlice(Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable) {
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        if (searchIndex.canSearch(search)) {
+            TrigramIndex.SearchResult result = searchIndex.searchUsers(search, isDeleted, isActive,
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            List<UserListRow> rows = Helper.loadInOrder(result.ids(), userRepository::findListRowsByIds, UserListRow::id);
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.total();
+            return Helper.getSliceResponse(new SliceImpl<>(rows, pageable, hasNext), UserMapper::toResponse);
         }
+        Slice<UserListRow> users = userRepository.findListRows(search, isDeleted, isActive, pageable);
+        return Helper.getSliceResponse(users, UserMapper::toResponse);
+    }
+
+    private PageableResponse<UserResponse> listUsers(String keyword, Boolean isDeleted, Boolean isActive, Pageable pageable) {
+        Slice<UserListRow> users = userRepository.findListRows(keyword, isDeleted, isActive, pageable);
+        ListCountCache.Count count = countUsers(keyword, isDeleted, isActive);
+        return Helper.getPageableResponse(users, count.total(), count.approximate(), UserMapper::toResponse);
+    }
 
-        Page<User> usersPage = userRepository.findAll(spec, pageable);
-        return Helper.getPageableResponse(usersPage, UserResponse.class);
+    // Totals per filter combination are cached briefly, pages of the same listing share one COUNT
+    private ListCountCache.Count countUsers(String keyword, Boolean isDeleted, Boolean isActive) {
+        return listCountCache.count("users|" + isDeleted + "|" + isActive + "|" + ListCountCache.keywordSegment(keyword),
+                () -> userRepository.countListRows(keyword, isDeleted, isActive));
     }
 
+    // Keyset pagination: the cost of a page does not depend on how deep it is
     @Override
-    public Page<UserResponse> getUsersWithFilter(Boolean isDeleted, Boolean isActive,String keyword, Pageable pageable) {
-        Page<User> users;
-        if (StringUtils.hasText(keyword)) {
-            users = userRepository.searchUsersWithKeyword(keyword, isDeleted, isActive, pageable);
-        } else {
-            if (isDeleted != null && isActive != null) {
-                users = userRepository.findAllByIsDeletedAndAccountStatus_IsActive(isDeleted, isActive, pageable);
-            } else if (isDeleted != null) {
-                users = userRepository.findAllByIsDeleted(isDeleted, pageable);
-            } else if (isActive != null) {
-                users = userRepository.findAllByAccountStatus_IsActive(isActive, pageable);
-            } else {
-                users = userRepository.findAll(pageable);
-            }
-        }
+    public CursorPageResponse<UserResponse> getUsersByCursor(Boolean isDeleted, Boolean isActive, String keyword,
+                                                             String sortBy, String sortDir, String cursor, int pageSize) {
+        KeysetCursor position = StringUtils.hasText(cursor)
+                ? KeysetCursor.decode(cursor)
+                : KeysetCursor.first(sortBy, sortDir);
+        int size = Math.max(1, Math.min(pageSize, KeysetCursor.MAX_PAGE_SIZE));
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+
+        List<KeysetCursor> positions = userRepository.findKeysetPage(position, search, isDeleted, isActive, size + 1);
+        return Helper.getCursorPageResponse(positions, size, userRepository::findListRowsByIds,
+                UserListRow::id, UserMapper::toResponse);
+    }
 
-        return users.map(user -> mapper.map(user, UserResponse.class));
+    // Typeahead over username, email and name: ids from the prefix index, rows by primary key
+    @Override
+    public List<AutocompleteSuggestion> autocomplete(String prefix, int limit) {
+        if (!StringUtils.hasText(prefix)) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, SearchIndexService.MAX_SUGGESTIONS));
+        List<SearchIndexRow> rows = searchIndex.canAutocomplete(prefix)
+                ? Helper.loadInOrder(searchIndex.autocompleteUsers(prefix, size),
+                        userRepository::findSearchIndexRowsByIds, SearchIndexRow::id)
+                : userRepository.findAutocompleteRows(prefix.trim(), PageRequest.of(0, size));
+        return rows.stream()
+                .filter(row -> !row.isDeleted())
+                .map(SuggestionMapper::toSuggestion)
+                .toList();
     }
 
 
     @Override
     public void softDeleteUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("User not found"));
-        user.setDeleted(true);
-        userRepository.save(user);
+        // Deleting again keeps the original deletedOn and finishes an interrupted cascade
+        if (!user.isDeleted() || user.getDeletedOn() == null) {
+            user.setDeleted(true);
+            user.setDeletedOn(LocalDateTime.now());
+            userRepository.save(user);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(id));
+        }
+        bulkAccountService.softDeleteWorkersOf(id, user.getDeletedOn());
     }
 
 
     @Override
     public void restoreUser(Long id) {
         User user = getUserOrThrow(id);
+        // The workers first: they are matched on the user's deletedOn
+        bulkAccountService.restoreWorkersOf(id);
         user.setDeleted(false);
+        user.setDeletedOn(null);
         userRepository.save(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(id));
     }
 
     @Override
     public void permanentlyDelete(Long id) {
         User user = getUserOrThrow(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(id));
     }
     private User getUserOrThrow(Long id) {
         return userRepository.findById(id)
@@ -165,7 +236,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponse updateUser(Long id, UserRequest request) {
-        User user=userRepository.findById(id)
+        User user=userRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("USER", "ID", id));
 
         // Update username
@@ -194,8 +265,9 @@ public class UserServiceImpl implements UserService {
         // Update roles
         if (request.getRoles() != null && !request.getRoles().isEmpty()) {
             Set<Role> roles = request.getRoles().stream()
-                    .map(roleName -> roleRepository.findByName(String.valueOf(roleName))
-                            .orElseThrow(() -> new RuntimeException("Role not found with name: " + roleName)))
+                    .map(roleName -> roleRegistry.findByName(String.valueOf(roleName))
+                            .orElseThrow(() -> new RuntimeException("Role not found with name: " + roleName))
+                            .toEntity())
                     .collect(Collectors.toSet());
             user.setRoles(roles);
         }
@@ -207,7 +279,8 @@ public class UserServiceImpl implements UserService {
 
         // Save and return updated user
         userRepository.save(user);
-        return mapper.map(user, UserResponse.class);
+        eventPublisher.publishEvent(IdentityChangedEvent.user(id));
+        return UserMapper.toResponse(user);
 
     }
 
@@ -227,18 +300,18 @@ public class UserServiceImpl implements UserService {
         if (userDetails == null) {
             throw new IllegalStateException("User details not found.");
         }
-        return mapper.map(userDetails, UserResponse.class);
+        return UserMapper.fromPrincipal((CustomUserDetails) userDetails);
     }
 
     @Override
     public UserResponse getByIdForUser(Long aLong) {
-        User user = userRepository.findById(aLong)
+        User user = userRepository.findDetailById(aLong)
                 .orElseThrow(() -> {
                     log.error("User with ID '{}' not found", aLong);
                     return new ResourceNotFoundException("USER", "ID", aLong);
                 });
 
-        return mapper.map(user, UserResponse.class);
+        return UserMapper.toResponse(user);
     }
 
     @Override
@@ -266,21 +339,23 @@ public class UserServiceImpl implements UserService {
 
 
             // Assign the default role (USER)
-            Role role = roleRepository.findByName("ROLE_USER")
+            Role role = roleRegistry.findByName("ROLE_USER")
                     .orElseThrow(() -> {
                         log.error("Role 'USER' not found");
                         return new BadApiRequestException("Role Not found with Name");
-                    });
+                    })
+                    .toEntity();
             user.setRoles(Set.of(role));
 
             // Save the user in the repository
             userRepository.save(user);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(user.getId()));
 
             // Log user creation
             log.info("User with username '{}' created successfully", user.getUsername());
 
             // Map the saved user to UserResponse and return
-            return mapper.map(user, UserResponse.class);
+            return UserMapper.toResponse(user);
 
         });
     }
@@ -296,9 +371,10 @@ public class UserServiceImpl implements UserService {
     @Override
     public CompletableFuture<Set<UserResponse>> getAll() {
         return CompletableFuture.supplyAsync(() -> {
-            List<User> users = userRepository.findAll();
+            // Runs off the request thread, so roles and status must come with the query
+            List<User> users = userRepository.findAllForExport();
             return users.stream()
-                    .map(user -> mapper.map(user, UserResponse.class))
+                    .map(UserMapper::toResponse)
                     .collect(Collectors.toSet());
         });
     }
@@ -315,6 +391,7 @@ public class UserServiceImpl implements UserService {
                 throw new ResourceNotFoundException("USER", "ID", aLong);
             }
             userRepository.deleteById(aLong);
+            eventPublisher.publishEvent(IdentityChangedEvent.user(aLong));
             return true;
         });
     }
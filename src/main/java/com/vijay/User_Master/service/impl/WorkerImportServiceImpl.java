@@ -0,0 +1,428 @@
+package com.vijay.User_Master.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.config.security.BoundedPasswordEncoder;
+import com.vijay.User_Master.config.security.IdentityLookupIndex;
+import com.vijay.User_Master.dto.DataFormat;
+import com.vijay.User_Master.dto.UserRequest;
+import com.vijay.User_Master.dto.WorkerImportReport;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.exceptions.ServiceOverloadedException;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.search.TakenIdentifierFilter;
+import com.vijay.User_Master.service.UserService;
+import com.vijay.User_Master.service.WorkerImportService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk worker import. The upload is read one row at a time and never held in memory:
+ * rows are validated as they arrive and every batch-size valid rows are checked against
+ * the taken identifiers (Bloom filter, then one identity_lookup query), hashed on the
+ * password pool in parallel and inserted in one transaction as JDBC batches. Each chunk
+ * publishes one {@link IdentityChangedEvent}. A chunk that hits a unique key (a concurrent
+ * registration) is retried row by row so only the conflicting rows are rejected.
+ */
+@Service
+@Log4j2
+public class WorkerImportServiceImpl implements WorkerImportService {
+
+    private static final String WORKER_ROLE = "ROLE_WORKER";
+    private static final int MAX_LENGTH = 255;
+
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final RoleRegistry roleRegistry;
+    private final UserService userService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TakenIdentifierFilter takenIdentifiers;
+    private final IdentityLookupIndex identityLookup;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxErrors;
+
+    public WorkerImportServiceImpl(UserRepository userRepository,
+                                   WorkerRepository workerRepository,
+                                   RoleRegistry roleRegistry,
+                                   UserService userService,
+                                   BoundedPasswordEncoder passwordEncoder,
+                                   TakenIdentifierFilter takenIdentifiers,
+                                   IdentityLookupIndex identityLookup,
+                                   ObjectMapper objectMapper,
+                                   ApplicationEventPublisher eventPublisher,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.worker-import.batch-size:500}") int batchSize,
+                                   @Value("${app.worker-import.max-rows:100000}") int maxRows,
+                                   @Value("${app.worker-import.max-errors:1000}") int maxErrors) {
+        this.userRepository = userRepository;
+        this.workerRepository = workerRepository;
+        this.roleRegistry = roleRegistry;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.takenIdentifiers = takenIdentifiers;
+        this.identityLookup = identityLookup;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+    }
+
+    // One record of the upload; error is set when it could not be parsed
+    private record Row(long line, UserRequest request, String error) {
+    }
+
+    @Override
+    public WorkerImportReport importWorkers(InputStream body, DataFormat format) {
+        long start = System.currentTimeMillis();
+        Long ownerId = userService.getCurrentUser().getId();
+        Long roleId = roleRegistry.findByName(WORKER_ROLE)
+                .orElseThrow(() -> new BadApiRequestException("Worker role not found."))
+                .id();
+
+        WorkerImportReport report = new WorkerImportReport();
+        // Normalized identifiers of the accepted rows, so a file cannot claim one twice
+        Set<String> seen = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(batchSize);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            RowReader reader = format == DataFormat.CSV ? new CsvRowReader(in) : new NdjsonRowReader(in);
+            Row row;
+            while ((row = reader.next()) != null) {
+                if (report.getTotalRows() == maxRows) {
+                    report.setAbortedReason("Row limit of " + maxRows + " reached at line " + row.line());
+                    break;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+                String error = row.error() != null ? row.error() : validate(row.request(), seen);
+                if (error != null) {
+                    reject(report, row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, ownerId, roleId, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, ownerId, roleId, report);
+                chunk.clear();
+            }
+        } catch (ServiceOverloadedException ex) {
+            log.warn("Worker import stopped, password hashing is overloaded: {}", ex.getMessage());
+            report.setAbortedReason("Server is busy, rows from line " + chunk.get(0).line() + " on were not imported");
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Worker import stopped, upload could not be read: {}", ex.getMessage());
+            report.setAbortedReason("Upload could not be read: " + ex.getMessage());
+        }
+
+        log.info("Worker import for user {}: {} rows, {} imported, {} rejected in {} ms",
+                ownerId, report.getTotalRows(), report.getImported(), report.getFailed(),
+                System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, Long ownerId, Long roleId, WorkerImportReport report) {
+        List<String> identifiers = new ArrayList<>(chunk.size() * 2);
+        for (Row row : chunk) {
+            identifiers.add(row.request().getUsername());
+            identifiers.add(row.request().getEmail());
+        }
+        Set<String> taken = takenAmong(identifiers);
+
+        List<Row> free = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (taken.contains(IdentityLookupIndex.normalize(row.request().getUsername()))
+                    || taken.contains(IdentityLookupIndex.normalize(row.request().getEmail()))) {
+                reject(report, row, "Username or email is already taken");
+            } else {
+                free.add(row);
+            }
+        }
+        if (free.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(free.stream().map(row -> row.request().getPassword()).toList());
+        try {
+            insert(free, hashes, ownerId, roleId);
+            report.setImported(report.getImported() + free.size());
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with a registration since the check: find the conflicting rows one by one
+            log.debug("Import chunk from line {} hit a unique key, retrying row by row", free.get(0).line());
+            for (int i = 0; i < free.size(); i++) {
+                try {
+                    insert(List.of(free.get(i)), List.of(hashes.get(i)), ownerId, roleId);
+                    report.setImported(report.getImported() + 1);
+                } catch (DataIntegrityViolationException rowEx) {
+                    reject(report, free.get(i), "Username or email is already taken");
+                }
+            }
+        }
+    }
+
+    private void insert(List<Row> rows, List<String> hashes, Long ownerId, Long roleId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = entityManager.getReference(User.class, ownerId);
+            Role role = entityManager.getReference(Role.class, roleId);
+            List<Worker> workers = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                workers.add(toWorker(rows.get(i).request(), hashes.get(i), owner, role));
+            }
+            workerRepository.saveAllAndFlush(workers);
+            eventPublisher.publishEvent(IdentityChangedEvent.workers(workers.stream().map(Worker::getId).toList()));
+            // The request may keep one persistence context open across chunks (open-in-view)
+            entityManager.clear();
+        });
+    }
+
+    // Normalized identifiers among the given ones that belong to a user or worker
+    private Set<String> takenAmong(List<String> identifiers) {
+        List<String> probable = identifiers.stream().filter(takenIdentifiers::mightBeTaken).toList();
+        if (probable.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> taken = identityLookup.isReady()
+                ? identityLookup.takenAmong(probable)
+                : userRepository.findTakenIdentifiers(probable).stream()
+                .map(IdentityLookupIndex::normalize)
+                .collect(Collectors.toSet());
+        for (String identifier : probable) {
+            if (!taken.contains(IdentityLookupIndex.normalize(identifier))) {
+                takenIdentifiers.recordFalsePositive();
+            }
+        }
+        return taken;
+    }
+
+    private static Worker toWorker(UserRequest request, String passwordHash, User owner, Role role) {
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+        return Worker.builder()
+                .name(request.getName())
+                .username(request.getUsername())
+                .email(request.getEmail())
+                .password(passwordHash)
+                .phoNo(request.getPhoNo())
+                .about(request.getAbout())
+                .roles(roles)
+                .user(owner)
+                .accountStatus(AccountStatus.builder().isActive(true).build())
+                .build();
+    }
+
+    private static String validate(UserRequest request, Set<String> seen) {
+        request.setUsername(StringUtils.trimWhitespace(request.getUsername()));
+        request.setEmail(StringUtils.trimWhitespace(request.getEmail()));
+        if (!StringUtils.hasText(request.getUsername()) || !StringUtils.hasText(request.getEmail())
+                || !StringUtils.hasText(request.getPassword())) {
+            return "username, email and password are required";
+        }
+        if (request.getEmail().indexOf('@') <= 0) {
+            return "Invalid email";
+        }
+        if (request.getUsername().length() > MAX_LENGTH || request.getEmail().length() > MAX_LENGTH
+                || (request.getName() != null && request.getName().length() > MAX_LENGTH)
+                || (request.getAbout() != null && request.getAbout().length() > 1000)) {
+            return "Value too long";
+        }
+        String username = IdentityLookupIndex.normalize(request.getUsername());
+        String email = IdentityLookupIndex.normalize(request.getEmail());
+        if (seen.contains(username) || seen.contains(email)) {
+            return "Duplicate username or email in the upload";
+        }
+        seen.add(username);
+        seen.add(email);
+        return null;
+    }
+
+    private void reject(WorkerImportReport report, Row row, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            String username = row.request() != null ? row.request().getUsername() : null;
+            report.getErrors().add(new WorkerImportReport.RowError(row.line(), username, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private abstract static class RowReader {
+        private final BufferedReader in;
+        protected long line;
+
+        RowReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        protected String readLine() throws IOException {
+            String text = in.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        }
+
+        // Next record, null at the end of the upload
+        abstract Row next() throws IOException;
+    }
+
+    // RFC 4180 CSV with a header row naming the columns (name, username, email, password, phoNo, about)
+    private static class CsvRowReader extends RowReader {
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final int width;
+
+        CsvRowReader(BufferedReader in) throws IOException {
+            super(in);
+            String header = readLine();
+            if (header == null) {
+                throw new BadApiRequestException("The upload is empty");
+            }
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            List<String> names = parse(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.keySet().containsAll(List.of("username", "email", "password"))) {
+                throw new BadApiRequestException("CSV header must name the username, email and password columns");
+            }
+            width = names.size();
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            do {
+                text = readLine();
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            long start = line;
+            List<String> fields = parse(text);
+            if (fields == null) {
+                return new Row(start, null, "Unterminated quoted field");
+            }
+            if (fields.size() != width) {
+                return new Row(start, null, "Expected " + width + " columns, found " + fields.size());
+            }
+            UserRequest request = UserRequest.builder()
+                    .name(field(fields, "name"))
+                    .username(field(fields, "username"))
+                    .email(field(fields, "email"))
+                    .password(field(fields, "password"))
+                    .phoNo(field(fields, "phono"))
+                    .about(field(fields, "about"))
+                    .build();
+            return new Row(start, request, null);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null || fields.get(index).isEmpty() ? null : fields.get(index);
+        }
+
+        // Splits one record, reading further lines while a quoted field is open; null if it never closes
+        private List<String> parse(String text) throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    text = readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // One UserRequest JSON object per line
+    private class NdjsonRowReader extends RowReader {
+
+        NdjsonRowReader(BufferedReader in) {
+            super(in);
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            do {
+                text = readLine();
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line, objectMapper.readValue(text, UserRequest.class), null);
+            } catch (JsonProcessingException ex) {
+                return new Row(line, null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+}
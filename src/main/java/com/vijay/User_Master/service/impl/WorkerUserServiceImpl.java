@@ -2,28 +2,42 @@ package com.vijay.User_Master.service.impl;
 
 import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.Helper;
+import com.vijay.User_Master.Helper.KeysetCursor;
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.dto.AutocompleteSuggestion;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.FavouriteEntryResponse;
 import com.vijay.User_Master.dto.PageableResponse;
+import com.vijay.User_Master.dto.PurgeJobResponse;
+import com.vijay.User_Master.dto.SliceResponse;
 import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.WorkerListRow;
 import com.vijay.User_Master.dto.WorkerResponse;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.FavouriteEntry;
+import com.vijay.User_Master.entity.PurgeJob;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.event.IdentityChangedEvent;
 import com.vijay.User_Master.exceptions.ResourceNotFoundException;
+import com.vijay.User_Master.mapper.FavouriteEntryMapper;
+import com.vijay.User_Master.mapper.PurgeJobMapper;
+import com.vijay.User_Master.mapper.SuggestionMapper;
+import com.vijay.User_Master.mapper.WorkerMapper;
 import com.vijay.User_Master.repository.FavouriteEntryRepo;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.scheduler.PurgeJobRunner;
+import com.vijay.User_Master.search.SearchIndexRow;
+import com.vijay.User_Master.search.SearchIndexService;
+import com.vijay.User_Master.search.TrigramIndex;
 import com.vijay.User_Master.service.WorkerUserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 
@@ -38,15 +52,18 @@ import java.util.stream.Collectors;
 public class WorkerUserServiceImpl implements WorkerUserService {
 
     private final WorkerRepository workerRepository;
-    private final ModelMapper mapper;
     private final FavouriteEntryRepo favouriteEntryRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListCountCache listCountCache;
+    private final SearchIndexService searchIndex;
+    private final PurgeJobRunner purgeJobRunner;
 
     // find user by id ... for Worker Entity
     @Override
     public WorkerResponse findById(Long id) throws Exception {
-        Worker worker = workerRepository.findById(id)
+        Worker worker = workerRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Worker", "ID", id));
-        return mapper.map(worker, WorkerResponse.class);
+        return WorkerMapper.toResponse(worker);
     }
 
     // You can delete Item ... it saves at recycle bin.
@@ -64,6 +81,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         accountStatus.setIsActive(false);
         worker.setAccountStatus(accountStatus);
         workerRepository.save(worker);
+        eventPublisher.publishEvent(IdentityChangedEvent.worker(id));
     }
 
     // You can restore Item form recycle bin
@@ -80,6 +98,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
             worker.setAccountStatus(accountStatus);
 
             workerRepository.save(worker); // Save the restored worker
+            eventPublisher.publishEvent(IdentityChangedEvent.worker(id));
         } else {
             throw new IllegalArgumentException("Worker with ID " + id + " is already present.");
         }
@@ -92,6 +111,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Worker", "ID", id));
         if (worker.isDeleted()) {
             workerRepository.delete(worker); // deleting form recycle bin
+            eventPublisher.publishEvent(IdentityChangedEvent.worker(id));
         } else {
             throw new IllegalArgumentException("Sorry You can't hard delete Directly");
         }
@@ -105,23 +125,21 @@ public class WorkerUserServiceImpl implements WorkerUserService {
     // find all User from Worker user Entity
     @Override
     public PageableResponse<WorkerResponse> findAll(Pageable pageable) {
-        Page<Worker> pages = workerRepository.findAll(pageable);
-        return Helper.getPageableResponse(pages, WorkerResponse.class);
+        return listWorkers(null, null, null, null, pageable);
     }
 
     @Override
     public PageableResponse<WorkerResponse> searchItemsWithDynamicFields(String query, Pageable pageable) {
-        Specification<Worker> spec = (root, criteriaQuery, criteriaBuilder) -> {
-            String likePattern = "%" + query + "%";
-            return criteriaBuilder.or(
-                    criteriaBuilder.like(root.get("name"), likePattern),
-                    criteriaBuilder.like(root.get("username"), likePattern),
-                    criteriaBuilder.like(root.get("email"), likePattern),
-                    criteriaBuilder.like(root.get("phoNo"), likePattern),
-                    criteriaBuilder.like(root.get("accountStatus").get("isActive").as(String.class), likePattern));
-        };
-        Page<Worker> workerPage = workerRepository.findAll(spec, pageable);
-        return Helper.getPageableResponse(workerPage, WorkerResponse.class);
+        if (searchIndex.canSearch(query)) {
+            TrigramIndex.SearchResult result = searchIndex.searchWorkers(null, query, null, null,
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            List<WorkerListRow> rows = Helper.loadInOrder(result.ids(), workerRepository::findListRowsByIds, WorkerListRow::id);
+            return Helper.getPageableResponse(new PageImpl<>(rows, pageable, result.total()), WorkerMapper::toResponse);
+        }
+        Slice<WorkerListRow> workers = workerRepository.searchListRows(query, pageable);
+        ListCountCache.Count count = listCountCache.count("workers|search|" + query,
+                () -> workerRepository.countSearchListRows(query));
+        return Helper.getPageableResponse(workers, count.total(), count.approximate(), WorkerMapper::toResponse);
     }
 
     @Override
@@ -132,29 +150,36 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         Sort sort = (sortDir.equalsIgnoreCase("desc")) ? (Sort.by(sortBy).descending()) : (Sort.by(sortBy).ascending());
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
         Page<Worker> allPages = workerRepository.findByCreatedByAndIsDeletedFalse(loggedInUserId, pageable);
-        return Helper.getPageableResponse(allPages, WorkerResponse.class);
+        return Helper.getPageableResponse(allPages, WorkerMapper::toResponse);
     }
 
 
+    // Deleting happens in the background, chunk by chunk, see PurgeJobRunner
     @Override
-    public void emptyRecycleBin(Pageable pageable) {
+    public PurgeJobResponse emptyRecycleBin() {
         CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
-        Page<Worker> pages = workerRepository.findByCreatedByAndIsDeletedTrue(loggedInUser.getId(), pageable);
-        if (pages.isEmpty()) {
+        if (!workerRepository.existsByCreatedByAndIsDeletedTrue(loggedInUser.getId())) {
             throw new ResourceNotFoundException("Recycle Bin", "Workers", "No deleted workers found for the current user.");
         }
-        if (!ObjectUtils.isEmpty(pages)) {
-            workerRepository.deleteAll(pages);
-        }
+        return PurgeJobMapper.toResponse(purgeJobRunner.emptyRecycleBin(loggedInUser.getId()));
+    }
+
+    @Override
+    public PurgeJobResponse getPurgeJob(Long jobId) {
+        CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
+        PurgeJob job = purgeJobRunner.find(jobId)
+                .filter(found -> loggedInUser.getId().equals(found.getOwnerId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Purge job", "ID", jobId));
+        return PurgeJobMapper.toResponse(job);
     }
 
     // find all only Active users by superuser id or loggedInUser userId
     @Override
     public List<WorkerResponse> findAllActiveUsers() {
         //CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
-        List<Worker> userLists = workerRepository.findAll();
+        List<Worker> userLists = workerRepository.findAllForExport();
         return userLists.stream()
-                .map((worker -> mapper.map(worker, WorkerResponse.class)))
+                .map(WorkerMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -168,7 +193,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         if (workerRepository.findByCreatedByAndIsDeletedTrue(loggedInUser.getId(), pageable).isEmpty()) {
             throw new ResourceNotFoundException("Recycle Bin", "Workers", "No deleted workers found for the current user.");
         }
-        return Helper.getPageableResponse(users, WorkerResponse.class);
+        return Helper.getPageableResponse(users, WorkerMapper::toResponse);
     }
 
     @Override
@@ -195,17 +220,13 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
         List<FavouriteEntry> favouriteWorkers = favouriteEntryRepo.findByUserId(loggedInUser.getId());
         return favouriteWorkers.stream()
-                .map((worker) -> mapper.map(worker, FavouriteEntryResponse.class))
+                .map(FavouriteEntryMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     public PageableResponse<WorkerResponse> getWorkersBySuperUserId(Long superUserId, int pageNumber, int pageSize, String sortBy, String sortDir) {
-        CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
-
-        if (!superUserId.equals(loggedInUser.getId())) {
-            throw new IllegalArgumentException("You are not authorized to access this user's workers.");
-        }
+        checkOwner(superUserId);
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
@@ -213,44 +234,105 @@ public class WorkerUserServiceImpl implements WorkerUserService {
 
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        Page<Worker> workerPage = workerRepository.findByUser_Id(superUserId, pageable);
-
-        return Helper.getPageableResponse(workerPage, WorkerResponse.class);
+        return listWorkers(superUserId, null, null, null, pageable);
     }
 
     @Override
     public PageableResponse<WorkerResponse> getWorkersBySuperUserWithFilter(Long superUserId, String filter, Pageable pageable) {
-        Page<Worker> page = switch (filter.toLowerCase()) {
-            case "active" ->
-                    workerRepository.findByUser_IdAndIsDeletedFalseAndAccountStatus_IsActiveTrue(superUserId, pageable);
-            case "deleted" -> workerRepository.findByUser_IdAndIsDeletedTrue(superUserId, pageable);
-            case "expired" ->
-                    workerRepository.findByUser_IdAndIsDeletedFalseAndAccountStatus_IsActiveFalse(superUserId, pageable);
-            default -> workerRepository.findByUser_Id(superUserId, pageable);
+        return switch (filter.toLowerCase()) {
+            case "active" -> listWorkers(superUserId, null, false, true, pageable);
+            case "deleted" -> listWorkers(superUserId, null, true, null, pageable);
+            case "expired" -> listWorkers(superUserId, null, false, false, pageable);
+            default -> listWorkers(superUserId, null, null, null, pageable);
         };
-
-        return Helper.getPageableResponse(page, WorkerResponse.class);
     }
 
     @Override
     public Page<WorkerResponse> getWorkersWithFilter(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable) {
-        Page<Worker> workers;
+        checkOwner(superUserId);
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        if (searchIndex.canSearch(search)) {
+            // Ranked ids from the super user's index partition, hydrated with one IN query
+            TrigramIndex.SearchResult result = searchIndex.searchWorkers(superUserId, search, isDeleted, isActive,
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            List<WorkerListRow> rows = Helper.loadInOrder(result.ids(), workerRepository::findListRowsByIds, WorkerListRow::id);
+            return new PageImpl<>(rows, pageable, result.total()).map(WorkerMapper::toResponse);
+        }
+        Slice<WorkerListRow> workers = workerRepository.findListRows(superUserId, search, isDeleted, isActive, pageable);
+        ListCountCache.Count count = countWorkers(superUserId, search, isDeleted, isActive);
+        return new PageImpl<>(workers.getContent(), pageable, count.total()).map(WorkerMapper::toResponse);
+    }
 
-        if (StringUtils.hasText(keyword)) {
-            workers = workerRepository.searchWorkersBySuperUserWithKeyword(keyword, isDeleted, isActive, superUserId, pageable);
-        } else {
-            if (isDeleted != null && isActive != null) {
-                workers = workerRepository.findByUser_IdAndIsDeletedAndAccountStatus_IsActive(superUserId, isDeleted, isActive, pageable);
-            } else if (isDeleted != null) {
-                workers = workerRepository.findByUser_IdAndIsDeleted(superUserId, isDeleted, pageable);
-            } else if (isActive != null) {
-                workers = workerRepository.findByUser_IdAndAccountStatus_IsActive(superUserId, isActive, pageable);
-            } else {
-                workers = workerRepository.findByUser_Id(superUserId, pageable);
-            }
+    @Override
+    public SliceResponse<WorkerResponse> getWorkersSlice(Long superUserId, Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable) {
+        checkOwner(superUserId);
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+        if (searchIndex.canSearch(search)) {
+            TrigramIndex.SearchResult result = searchIndex.searchWorkers(superUserId, search, isDeleted, isActive,
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            List<WorkerListRow> rows = Helper.loadInOrder(result.ids(), workerRepository::findListRowsByIds, WorkerListRow::id);
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.total();
+            return Helper.getSliceResponse(new SliceImpl<>(rows, pageable, hasNext), WorkerMapper::toResponse);
+        }
+        Slice<WorkerListRow> workers = workerRepository.findListRows(superUserId, search, isDeleted, isActive, pageable);
+        return Helper.getSliceResponse(workers, WorkerMapper::toResponse);
+    }
+
+    private PageableResponse<WorkerResponse> listWorkers(Long superUserId, String keyword, Boolean isDeleted,
+                                                         Boolean isActive, Pageable pageable) {
+        Slice<WorkerListRow> workers = workerRepository.findListRows(superUserId, keyword, isDeleted, isActive, pageable);
+        ListCountCache.Count count = countWorkers(superUserId, keyword, isDeleted, isActive);
+        return Helper.getPageableResponse(workers, count.total(), count.approximate(), WorkerMapper::toResponse);
+    }
+
+    // A super user only sees its own workers
+    private static void checkOwner(Long superUserId) {
+        if (!superUserId.equals(CommonUtils.getLoggedInUser().getId())) {
+            throw new IllegalArgumentException("You are not authorized to access this user's workers.");
         }
+    }
 
-        return workers.map(worker -> mapper.map(worker, WorkerResponse.class));
+    // Same filters share one cached COUNT across their pages, see ListCountCache
+    private ListCountCache.Count countWorkers(Long superUserId, String keyword, Boolean isDeleted, Boolean isActive) {
+        return listCountCache.count("workers|" + superUserId + "|" + isDeleted + "|" + isActive + "|"
+                        + ListCountCache.keywordSegment(keyword),
+                () -> workerRepository.countListRows(superUserId, keyword, isDeleted, isActive));
+    }
+
+    // Keyset pagination, same filters as getWorkersWithFilter
+    @Override
+    public CursorPageResponse<WorkerResponse> getWorkersByCursor(Long superUserId, Boolean isDeleted, Boolean isActive,
+                                                                 String keyword, String sortBy, String sortDir,
+                                                                 String cursor, int pageSize) {
+        checkOwner(superUserId);
+        KeysetCursor position = StringUtils.hasText(cursor)
+                ? KeysetCursor.decode(cursor)
+                : KeysetCursor.first(sortBy, sortDir);
+        int size = Math.max(1, Math.min(pageSize, KeysetCursor.MAX_PAGE_SIZE));
+        String search = StringUtils.hasText(keyword) ? keyword : null;
+
+        List<KeysetCursor> positions = workerRepository.findKeysetPage(position, superUserId, search, isDeleted,
+                isActive, size + 1);
+        return Helper.getCursorPageResponse(positions, size, workerRepository::findListRowsByIds,
+                WorkerListRow::id, WorkerMapper::toResponse);
+    }
+
+    // Typeahead within one super user's workers, served from that super user's prefix index partition
+    @Override
+    public List<AutocompleteSuggestion> autocomplete(Long superUserId, String prefix, int limit) {
+        checkOwner(superUserId);
+        if (!StringUtils.hasText(prefix)) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, SearchIndexService.MAX_SUGGESTIONS));
+        List<SearchIndexRow> rows = searchIndex.canAutocomplete(prefix)
+                ? Helper.loadInOrder(searchIndex.autocompleteWorkers(superUserId, prefix, size),
+                        workerRepository::findSearchIndexRowsByIds, SearchIndexRow::id)
+                : workerRepository.findAutocompleteRows(superUserId, prefix.trim(), PageRequest.of(0, size));
+        return rows.stream()
+                .filter(row -> !row.isDeleted() && superUserId.equals(row.ownerId()))
+                .map(SuggestionMapper::toSuggestion)
+                .toList();
     }
 
     @Override
@@ -268,7 +350,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         worker.setAccountStatus(accountStatus); // assign to user
 
         workerRepository.save(worker); // cascade should handle persist/update
-
+        eventPublisher.publishEvent(IdentityChangedEvent.worker(userId));
     }
 
 
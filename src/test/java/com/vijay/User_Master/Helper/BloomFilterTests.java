@@ -0,0 +1,49 @@
+package com.vijay.User_Master.Helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  Bloom filter: no false negatives, false positive rate near the configured one.
+ */
+class BloomFilterTests {
+
+    @Test
+    void everyAddedKeyIsFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("taken" + i);
+        }
+
+        int hits = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("free" + i)) {
+                hits++;
+            }
+        }
+
+        assertThat(hits / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("anyone")).isFalse();
+        assertThat(filter.bitCount()).isGreaterThanOrEqualTo(64).isEqualTo(filter.bitCount() / 64 * 64);
+        assertThat(filter.hashCount()).isPositive();
+    }
+}
@@ -0,0 +1,50 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.dto.PageableResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  Slice pages with a cached total: the fresh slice wins when the total disagrees with it.
+ */
+class HelperTests {
+
+    @Test
+    void fullPageWithNextIsNotLastEvenIfCachedTotalIsTooSmall() {
+        SliceImpl<Integer> slice = new SliceImpl<>(List.of(1, 2, 3), PageRequest.of(1, 3), true);
+
+        PageableResponse<Integer> response = Helper.getPageableResponse(slice, 5, false, Function.identity());
+
+        assertThat(response.isLastPage()).isFalse();
+        assertThat(response.getTotalElements()).isEqualTo(7);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void lastSliceFixesTooLargeCachedTotal() {
+        SliceImpl<Integer> slice = new SliceImpl<>(List.of(1, 2), PageRequest.of(1, 3), false);
+
+        PageableResponse<Integer> response = Helper.getPageableResponse(slice, 50, true, Function.identity());
+
+        assertThat(response.isLastPage()).isTrue();
+        assertThat(response.getTotalElements()).isEqualTo(5);
+        assertThat(response.getTotalPages()).isEqualTo(2);
+        assertThat(response.isTotalApproximate()).isTrue();
+    }
+
+    @Test
+    void cachedTotalIsKeptWhenConsistent() {
+        SliceImpl<Integer> slice = new SliceImpl<>(List.of(1, 2, 3), PageRequest.of(0, 3), true);
+
+        PageableResponse<Integer> response = Helper.getPageableResponse(slice, 40, false, Function.identity());
+
+        assertThat(response.getTotalElements()).isEqualTo(40);
+        assertThat(response.isLastPage()).isFalse();
+    }
+}
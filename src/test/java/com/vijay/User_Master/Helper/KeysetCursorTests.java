@@ -0,0 +1,44 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ *  Cursor tokens: round trip, NULL sort values and rejected input.
+ */
+class KeysetCursorTests {
+
+    @Test
+    void tokenRoundTripsSortDirectionValueAndId() {
+        KeysetCursor cursor = KeysetCursor.first("name", "desc").after("Ravi, Kumar\nJr", 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isFirstPage()).isFalse();
+    }
+
+    @Test
+    void nullSortValueStaysDistinctFromEmptyString() {
+        KeysetCursor nullName = KeysetCursor.first("name", "asc").after(null, 7L);
+        KeysetCursor emptyName = KeysetCursor.first("name", "asc").after("", 7L);
+
+        assertThat(KeysetCursor.decode(nullName.encode()).lastValue()).isNull();
+        assertThat(KeysetCursor.decode(emptyName.encode()).lastValue()).isEmpty();
+    }
+
+    @Test
+    void unknownSortColumnIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.first("password", "asc"))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+
+    @Test
+    void garbageTokenIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.entity.IdentityLookup;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Login resolution: identity lookup hit, lookup miss falling back to the tables, and not-ready index.
+ */
+class CustomUserDetailsServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WorkerRepository workerRepository = mock(WorkerRepository.class);
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+    private final IdentityLookupIndex identityLookup = mock(IdentityLookupIndex.class);
+    private final CustomUserDetailsService service = new CustomUserDetailsService(userRepository, workerRepository,
+            principalCache, identityLookup, mock(ApplicationEventPublisher.class));
+
+    private static User user(Long id, String username, String email) {
+        return User.builder().id(id).username(username).email(email).password("hash").build();
+    }
+
+    private static Worker worker(Long id, String username, String email) {
+        return Worker.builder().id(id).username(username).email(email).password("hash").build();
+    }
+
+    @Test
+    void lookupHitLoadsThePrincipalByPrimaryKey() {
+        when(identityLookup.isReady()).thenReturn(true);
+        when(identityLookup.find("Ravi@Example.com"))
+                .thenReturn(Optional.of(new IdentityLookup("ravi@example.com", PrincipalType.WORKER, 7L)));
+        when(workerRepository.findDetailById(7L)).thenReturn(Optional.of(worker(7L, "ravi", "ravi@example.com")));
+
+        UserDetails details = service.loadUserByUsername("Ravi@Example.com");
+
+        assertThat(((CustomUserDetails) details).getId()).isEqualTo(7L);
+        assertThat(((CustomUserDetails) details).getType()).isEqualTo(PrincipalType.WORKER);
+        verify(workerRepository, never()).findPrincipalByUsernameOrEmail(anyString(), anyString());
+        verify(identityLookup, never()).backfill(any(), anyLong());
+        verify(principalCache).put("Ravi@Example.com", (CustomUserDetails) details);
+    }
+
+    @Test
+    void lookupMissFallsBackToTheTablesAndBackfills() {
+        when(identityLookup.isReady()).thenReturn(true);
+        when(identityLookup.find("asha")).thenReturn(Optional.empty());
+        when(userRepository.findPrincipalByUsernameOrEmail("asha", "asha"))
+                .thenReturn(Optional.of(user(3L, "asha", "asha@example.com")));
+
+        UserDetails details = service.loadUserByUsername("asha");
+
+        assertThat(((CustomUserDetails) details).getId()).isEqualTo(3L);
+        verify(identityLookup).backfill(PrincipalType.USER, 3L);
+        verify(principalCache, never()).putMissing(anyString());
+    }
+
+    @Test
+    void lookupMissAbsentFromTheTablesIsCachedAsMissing() {
+        when(identityLookup.isReady()).thenReturn(true);
+        when(identityLookup.find("nobody")).thenReturn(Optional.empty());
+        when(userRepository.findPrincipalByUsernameOrEmail("nobody", "nobody")).thenReturn(Optional.empty());
+        when(workerRepository.findPrincipalByUsernameOrEmail("nobody", "nobody")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(principalCache).putMissing("nobody");
+        verify(identityLookup, never()).backfill(any(), anyLong());
+    }
+
+    @Test
+    void notReadyIndexResolvesFromTheTablesOnly() {
+        when(identityLookup.isReady()).thenReturn(false);
+        when(userRepository.findPrincipalByUsernameOrEmail("ravi", "ravi")).thenReturn(Optional.empty());
+        when(workerRepository.findPrincipalByUsernameOrEmail("ravi", "ravi"))
+                .thenReturn(Optional.of(worker(7L, "ravi", "ravi@example.com")));
+
+        UserDetails details = service.loadUserByUsername("ravi");
+
+        assertThat(((CustomUserDetails) details).getType()).isEqualTo(PrincipalType.WORKER);
+        verify(identityLookup, never()).find(anyString());
+        verify(identityLookup, never()).backfill(any(), anyLong());
+    }
+}
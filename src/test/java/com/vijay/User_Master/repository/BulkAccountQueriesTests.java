@@ -0,0 +1,135 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.entity.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  The bulk action and cascade JPQL run against the real schema; every test rolls back.
+ */
+@SpringBootTest
+@Transactional
+class BulkAccountQueriesTests {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private WorkerRepository workerRepository;
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8);
+    private User admin;
+    private User ravi;
+    private User asha;
+
+    private User user(String name, String phoNo) {
+        String username = name.toLowerCase() + "-" + tag;
+        return userRepository.save(User.builder()
+                .name(name)
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .phoNo(phoNo)
+                .roles(new HashSet<>())
+                .accountStatus(AccountStatus.builder().isActive(true).build())
+                .build());
+    }
+
+    private Worker worker(User owner, String name) {
+        String username = name.toLowerCase() + "-" + tag;
+        return workerRepository.save(Worker.builder()
+                .name(name)
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .roles(new HashSet<>())
+                .user(owner)
+                .accountStatus(AccountStatus.builder().isActive(true).build())
+                .build());
+    }
+
+    @BeforeEach
+    void createUsers() {
+        admin = user("Admin", null);
+        ravi = user("Ravi", "98765" + tag);
+        asha = user("Asha", null);
+        // Worker auditing needs a principal
+        CustomUserDetails principal = CustomUserDetails.fromClaims(admin.getId(), PrincipalType.USER,
+                admin.getUsername(), admin.getEmail(), List.of("ROLE_ADMIN"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void logOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void selectionExcludesTheCallerAndMatchesThePhoneNumber() {
+        List<Long> ids = List.of(admin.getId(), ravi.getId(), asha.getId());
+
+        assertThat(userRepository.findBulkIds(ids, false, admin.getId())).containsExactlyInAnyOrder(ravi.getId(), asha.getId());
+        assertThat(userRepository.findBulkIdsAfter(tag, null, true, admin.getId(), 0L, PageRequest.of(0, 10)))
+                .containsExactly(ravi.getId(), asha.getId());
+        assertThat(userRepository.findBulkIdsAfter("98765" + tag, null, null, admin.getId(), 0L, PageRequest.of(0, 10)))
+                .containsExactly(ravi.getId());
+    }
+
+    @Test
+    void softDeleteAndRestoreOnlyChangeRowsInTheOtherState() {
+        LocalDateTime deletedOn = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = List.of(ravi.getId(), asha.getId());
+
+        assertThat(userRepository.softDeleteAllById(List.of(ravi.getId()), deletedOn)).isEqualTo(1);
+        assertThat(userRepository.softDeleteAllById(ids, deletedOn.plusDays(1))).isEqualTo(1);
+
+        assertThat(userRepository.findDeletedOnByIds(ids)).containsExactlyInAnyOrder(deletedOn, deletedOn.plusDays(1));
+        assertThat(userRepository.findIdsDeletedOn(ids, deletedOn)).containsExactly(ravi.getId());
+        assertThat(userRepository.findBulkIds(ids, true, admin.getId())).containsExactlyInAnyOrder(ravi.getId(), asha.getId());
+
+        assertThat(userRepository.restoreAllById(ids)).isEqualTo(2);
+        assertThat(userRepository.restoreAllById(ids)).isZero();
+        assertThat(userRepository.findDeletedOnByIds(ids)).isEmpty();
+    }
+
+    @Test
+    void cascadeTakesWorkersOfDeletedUsersOnly() {
+        LocalDateTime deletedOn = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Worker live = worker(ravi, "Live");
+        Worker earlier = worker(ravi, "Earlier");
+        worker(asha, "Ashas");
+        PageRequest limit = PageRequest.of(0, 10);
+        List<Long> owners = List.of(ravi.getId(), asha.getId());
+        workerRepository.softDeleteAllById(List.of(earlier.getId()), deletedOn.minusDays(3), new Date(), 1);
+
+        // Nobody is deleted yet: nothing cascades
+        assertThat(workerRepository.findCascadeIdsAfter(owners, false, 0L, limit)).isEmpty();
+
+        userRepository.softDeleteAllById(List.of(ravi.getId()), deletedOn);
+        assertThat(workerRepository.findCascadeIdsAfter(owners, false, 0L, limit)).containsExactly(live.getId());
+
+        workerRepository.softDeleteAllById(List.of(live.getId()), deletedOn, new Date(), 1);
+        // Restore only brings back the workers deleted together with their user
+        assertThat(workerRepository.findCascadeIdsAfter(owners, true, 0L, limit)).containsExactly(live.getId());
+    }
+}
@@ -0,0 +1,100 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Seek predicates built for each cursor position, in particular around NULL sort values.
+ */
+class KeysetQuerySupportTests {
+
+    private static final String FROM = "FROM Worker w WHERE 1 = 1";
+
+    private EntityManager entityManager;
+    private TypedQuery<Object[]> query;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void mockQuery() {
+        entityManager = mock(EntityManager.class);
+        query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(rows);
+    }
+
+    @Test
+    void firstPageHasNoSeekPredicate() {
+        String jpql = run(KeysetCursor.first("name", "asc"));
+
+        assertThat(jpql).isEqualTo("SELECT w.id, w.name FROM Worker w WHERE 1 = 1 ORDER BY w.name ASC, w.id ASC");
+    }
+
+    @Test
+    void ascendingAfterValueSkipsNullBlock() {
+        String jpql = run(KeysetCursor.first("name", "asc").after("Ravi", 5L));
+
+        assertThat(jpql).contains("AND (w.name > :lastValue OR (w.name = :lastValue AND w.id > :lastId))");
+        verify(query).setParameter("lastValue", "Ravi");
+    }
+
+    @Test
+    void ascendingInsideNullBlockContinuesWithNonNullValues() {
+        String jpql = run(KeysetCursor.first("name", "asc").after(null, 5L));
+
+        assertThat(jpql).contains("AND ((w.name IS NULL AND w.id > :lastId) OR w.name IS NOT NULL)");
+        verify(query, never()).setParameter(eq("lastValue"), any());
+    }
+
+    @Test
+    void descendingAfterValueStillReachesNullBlock() {
+        String jpql = run(KeysetCursor.first("name", "desc").after("Ravi", 5L));
+
+        assertThat(jpql).contains("AND (w.name < :lastValue OR (w.name = :lastValue AND w.id < :lastId) OR w.name IS NULL)");
+        assertThat(jpql).endsWith("ORDER BY w.name DESC, w.id DESC");
+    }
+
+    @Test
+    void descendingInsideNullBlockStaysInIt() {
+        String jpql = run(KeysetCursor.first("name", "desc").after(null, 5L));
+
+        assertThat(jpql).contains("AND ((w.name IS NULL AND w.id < :lastId))");
+    }
+
+    @Test
+    void nullSortValueOfLastRowIsKeptAsNull() {
+        rows.add(new Object[]{9L, null});
+
+        List<KeysetCursor> positions = KeysetQuerySupport.findPositions(entityManager, "w", FROM, Map.of(),
+                KeysetCursor.first("name", "asc"), 10);
+
+        assertThat(positions).singleElement().satisfies(position -> {
+            assertThat(position.lastValue()).isNull();
+            assertThat(position.lastId()).isEqualTo(9L);
+        });
+    }
+
+    private String run(KeysetCursor cursor) {
+        KeysetQuerySupport.findPositions(entityManager, "w", FROM, Map.of(), cursor, 10);
+        ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(jpql.capture(), eq(Object[].class));
+        return jpql.getValue();
+    }
+}
@@ -0,0 +1,160 @@
+package com.vijay.User_Master.scheduler;
+
+import com.vijay.User_Master.entity.PurgeJob;
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.AccountStatusRepository;
+import com.vijay.User_Master.repository.FavouriteEntryRepo;
+import com.vijay.User_Master.repository.PurgeJobRepository;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.impl.ListCountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Purge jobs: cursor walk, dependent deletes, resume after restart and failure handling.
+ */
+class PurgeJobRunnerTests {
+
+    private static final long OWNER_ID = 3L;
+
+    private final PurgeJobRepository purgeJobRepository = mock(PurgeJobRepository.class);
+    private final WorkerRepository workerRepository = mock(WorkerRepository.class);
+    private final AccountStatusRepository accountStatusRepository = mock(AccountStatusRepository.class);
+    private final FavouriteEntryRepo favouriteEntryRepo = mock(FavouriteEntryRepo.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PurgeJobRunner runner = new PurgeJobRunner(purgeJobRepository, workerRepository,
+            accountStatusRepository, favouriteEntryRepo, refreshTokenRepository, eventPublisher,
+            mock(ListCountCache.class), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2);
+
+    // The one stored job, and a latch released once it is saved COMPLETED or FAILED
+    private final AtomicReference<PurgeJob> stored = new AtomicReference<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        when(purgeJobRepository.save(any())).thenAnswer(invocation -> {
+            PurgeJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(7L);
+            }
+            stored.set(job);
+            if (job.getStatus() == PurgeJob.Status.COMPLETED || job.getStatus() == PurgeJob.Status.FAILED) {
+                finished.countDown();
+            }
+            return job;
+        });
+        when(purgeJobRepository.findById(7L)).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(purgeJobRepository.findFirstByTypeAndOwnerIdAndStatusIn(any(), any(), any())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        runner.stop();
+    }
+
+    private PurgeJob awaitFinished() throws InterruptedException {
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        return stored.get();
+    }
+
+    @Test
+    void purgesChunkByChunkWithDependentsAndCompletes() throws InterruptedException {
+        when(workerRepository.findPurgeIdsAfter(OWNER_ID, null, 0L, 2)).thenReturn(List.of(5L, 6L));
+        when(workerRepository.findPurgeIdsAfter(OWNER_ID, null, 6L, 2)).thenReturn(List.of(9L));
+        when(workerRepository.findStatusIds(List.of(5L, 6L))).thenReturn(List.of(50, 60));
+        when(workerRepository.findStatusIds(List.of(9L))).thenReturn(List.of());
+        when(workerRepository.deleteDeletedById(List.of(5L, 6L))).thenReturn(2);
+        when(workerRepository.deleteDeletedById(List.of(9L))).thenReturn(1);
+
+        runner.emptyRecycleBin(OWNER_ID);
+        PurgeJob job = awaitFinished();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeJob.Status.COMPLETED);
+        assertThat(job.getLastId()).isEqualTo(9L);
+        assertThat(job.getDeleted()).isEqualTo(3L);
+        assertThat(job.getStartedOn()).isNotNull();
+        assertThat(job.getFinishedOn()).isNotNull();
+        for (List<Long> chunk : List.of(List.of(5L, 6L), List.of(9L))) {
+            verify(favouriteEntryRepo).deleteByWorkerIds(chunk);
+            verify(refreshTokenRepository).deleteByWorkerIds(chunk);
+            verify(workerRepository).deleteRoleLinks(chunk);
+            verify(eventPublisher).publishEvent(IdentityChangedEvent.workers(chunk));
+        }
+        verify(accountStatusRepository).deleteAllByIdIn(List.of(50, 60));
+        verify(accountStatusRepository, never()).deleteAllByIdIn(List.of());
+    }
+
+    @Test
+    void unfinishedJobResumesAfterItsCursor() throws InterruptedException {
+        PurgeJob running = PurgeJob.builder().id(7L).type(PurgeJob.Type.RETENTION).status(PurgeJob.Status.RUNNING)
+                .deletedBefore(LocalDateTime.of(2026, 1, 1, 0, 0)).lastId(40L).deleted(10L).build();
+        stored.set(running);
+        when(purgeJobRepository.findByStatusInOrderById(any())).thenReturn(List.of(running));
+        when(workerRepository.findPurgeIdsAfter(null, running.getDeletedBefore(), 40L, 2)).thenReturn(List.of(41L));
+        when(workerRepository.deleteDeletedById(List.of(41L))).thenReturn(1);
+
+        runner.resumeOnStartup();
+        PurgeJob job = awaitFinished();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeJob.Status.COMPLETED);
+        assertThat(job.getLastId()).isEqualTo(41L);
+        assertThat(job.getDeleted()).isEqualTo(11L);
+        verify(workerRepository, never()).findPurgeIdsAfter(any(), any(), eq(0L), eq(2));
+    }
+
+    @Test
+    void failedChunkMarksTheJobFailedAndKeepsItsCursor() throws InterruptedException {
+        when(workerRepository.findPurgeIdsAfter(OWNER_ID, null, 0L, 2)).thenReturn(List.of(5L, 6L));
+        when(workerRepository.findPurgeIdsAfter(OWNER_ID, null, 6L, 2)).thenReturn(List.of(8L, 9L));
+        when(workerRepository.deleteDeletedById(List.of(5L, 6L))).thenReturn(2);
+        when(workerRepository.deleteDeletedById(List.of(8L, 9L))).thenThrow(new IllegalStateException("lock wait timeout"));
+
+        runner.emptyRecycleBin(OWNER_ID);
+        PurgeJob job = awaitFinished();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeJob.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("lock wait timeout");
+        assertThat(job.getLastId()).isEqualTo(6L);
+    }
+
+    @Test
+    void recycleBinAlreadyBeingEmptiedReturnsTheRunningJob() {
+        PurgeJob running = PurgeJob.builder().id(4L).type(PurgeJob.Type.RECYCLE_BIN).status(PurgeJob.Status.RUNNING)
+                .ownerId(OWNER_ID).build();
+        when(purgeJobRepository.findFirstByTypeAndOwnerIdAndStatusIn(eq(PurgeJob.Type.RECYCLE_BIN), eq(OWNER_ID), any()))
+                .thenReturn(Optional.of(running));
+
+        assertThat(runner.emptyRecycleBin(OWNER_ID)).isSameAs(running);
+        verify(purgeJobRepository, never()).save(any());
+    }
+
+    @Test
+    void retentionPurgeIsSkippedWhileOneRuns() {
+        when(purgeJobRepository.existsByTypeAndStatusIn(eq(PurgeJob.Type.RETENTION), any())).thenReturn(true);
+
+        assertThat(runner.purgeDeletedBefore(LocalDateTime.now())).isEmpty();
+        verify(workerRepository, never()).findPurgeIdsAfter(any(), any(), anyLong(), eq(2));
+    }
+}
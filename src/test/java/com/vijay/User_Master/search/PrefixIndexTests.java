@@ -0,0 +1,88 @@
+package com.vijay.User_Master.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  Prefix index: key order, partitions, updates in the delta and across merges.
+ */
+class PrefixIndexTests {
+
+    @Test
+    void completesInKeyOrderWithDistinctIds() {
+        PrefixIndex index = new PrefixIndex();
+        index.add(1, 10, "ravikumar", "ravi@example.com", "Ravi Kumar");
+        index.add(2, 10, "ravi", "r2@example.com", "Ravi");
+        index.add(3, 10, "rajesh", "raj@example.com", "Rajesh");
+        index.compact();
+
+        assertThat(index.complete(10, "RAV", 10)).containsExactly(2L, 1L);
+        assertThat(index.complete(10, "ra", 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.complete(10, "ra", 2)).containsExactly(3L, 2L);
+        assertThat(index.complete(10, "x", 10)).isEmpty();
+        assertThat(index.complete(10, "  ", 10)).isEmpty();
+    }
+
+    @Test
+    void partitionsAreIsolated() {
+        PrefixIndex index = new PrefixIndex();
+        index.add(1, 10, "ravi");
+        index.add(2, 20, "ravi");
+
+        assertThat(index.complete(10, "ravi", 10)).containsExactly(1L);
+        assertThat(index.complete(20, "ravi", 10)).containsExactly(2L);
+        assertThat(index.complete(30, "ravi", 10)).isEmpty();
+    }
+
+    @Test
+    void upsertHidesOldKeysBeforeAndAfterCompaction() {
+        PrefixIndex index = new PrefixIndex();
+        index.add(1, 10, "ravi");
+        index.compact();
+
+        index.upsert(1, 10, "asha");
+        assertThat(index.complete(10, "ravi", 10)).isEmpty();
+        assertThat(index.complete(10, "asha", 10)).containsExactly(1L);
+
+        index.upsert(1, 10, "meena");
+        index.compact();
+        assertThat(index.complete(10, "asha", 10)).isEmpty();
+        assertThat(index.complete(10, "meena", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedIdsAreNotCompleted() {
+        PrefixIndex index = new PrefixIndex();
+        index.add(1, 10, "ravi");
+        index.add(2, 10, "ravindra");
+        index.compact();
+        index.upsert(3, 10, "ravish");
+
+        index.remove(1, 10);
+        index.remove(3, 10);
+
+        assertThat(index.complete(10, "ravi", 10)).containsExactly(2L);
+        index.compact();
+        assertThat(index.complete(10, "ravi", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void mergesInterleavePackedAndDeltaEntries() {
+        PrefixIndex index = new PrefixIndex();
+        for (long id = 0; id < 3000; id += 2) {
+            index.add(id, 10, String.format("user%05d", id));
+        }
+        index.compact();
+        // Enough writes to pass the merge threshold on their own
+        for (long id = 1; id < 3000; id += 2) {
+            index.upsert(id, 10, String.format("user%05d", id));
+        }
+
+        assertThat(index.complete(10, "user0000", 20)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(index.complete(10, "user02999", 5)).containsExactly(2999L);
+        assertThat(index.complete(10, "user", 5000)).hasSize(3000);
+        assertThat(index.size()).isEqualTo(3000);
+    }
+}
@@ -0,0 +1,95 @@
+package com.vijay.User_Master.search;
+
+import com.vijay.User_Master.event.IdentityChangedEvent;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Identifier filter: build, normalization, updates and builds discarded by a failed update.
+ */
+class TakenIdentifierFilterTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WorkerRepository workerRepository = mock(WorkerRepository.class);
+    private TakenIdentifierFilter filter;
+
+    private static SearchIndexRow row(long id, String username, String email) {
+        return new SearchIndexRow(id, null, "Name", username, email, null, false, true);
+    }
+
+    @BeforeEach
+    void setUp() {
+        filter = new TakenIdentifierFilter(userRepository, workerRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), true, 1000, 0.01);
+        when(userRepository.streamSearchIndexRows())
+                .thenAnswer(invocation -> Stream.of(row(1, "ravi", "ravi@example.com")));
+        when(workerRepository.streamSearchIndexRows())
+                .thenAnswer(invocation -> Stream.of(row(2, "José", "jose@example.com")));
+    }
+
+    @Test
+    void everyIdentifierIsProbablyTakenBeforeTheFirstBuild() {
+        assertThat(filter.mightBeTaken("nobody")).isTrue();
+    }
+
+    @Test
+    void builtFilterKnowsBothTablesIgnoringCaseAndAccents() {
+        filter.rebuild();
+
+        assertThat(filter.mightBeTaken(" RAVI ")).isTrue();
+        assertThat(filter.mightBeTaken("jose")).isTrue();
+        assertThat(filter.mightBeTaken("JOSE@example.com")).isTrue();
+        assertThat(filter.mightBeTaken("nobody")).isFalse();
+    }
+
+    @Test
+    void changedIdentitiesAreAddedBeforeCommit() {
+        filter.rebuild();
+        when(workerRepository.findSearchIndexRowsByIds(any())).thenReturn(List.of(row(3, "asha", "asha@example.com")));
+
+        filter.onIdentityChanged(IdentityChangedEvent.worker(3L));
+
+        assertThat(filter.mightBeTaken("asha")).isTrue();
+        assertThat(filter.mightBeTaken("asha@example.com")).isTrue();
+    }
+
+    @Test
+    void failedUpdateSendsChecksToTheDatabase() {
+        filter.rebuild();
+        when(userRepository.findSearchIndexRowsByIds(any())).thenThrow(new IllegalStateException("down"));
+        // Keeps the background rebuild from installing a filter again
+        when(userRepository.count()).thenThrow(new IllegalStateException("down"));
+
+        filter.onIdentityChanged(IdentityChangedEvent.user(3L));
+
+        assertThat(filter.mightBeTaken("nobody")).isTrue();
+    }
+
+    @Test
+    void buildRunningDuringAFailedUpdateIsDiscarded() {
+        when(userRepository.findSearchIndexRowsByIds(any())).thenThrow(new IllegalStateException("down"));
+        // The update fails while the build streams; the rebuild it queues fails too
+        when(workerRepository.streamSearchIndexRows())
+                .thenAnswer(invocation -> {
+                    filter.onIdentityChanged(IdentityChangedEvent.user(3L));
+                    return Stream.of(row(2, "jose", "jose@example.com"));
+                })
+                .thenThrow(new IllegalStateException("down"));
+
+        filter.rebuild();
+
+        assertThat(filter.mightBeTaken("nobody")).isTrue();
+    }
+}
@@ -0,0 +1,129 @@
+package com.vijay.User_Master.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ *  Trigram index: exact substring matches, ranking, partitions, flags and updates.
+ */
+class TrigramIndexTests {
+
+    private static String[] fields(String name, String username, String email, String phoNo) {
+        return new String[]{name, username, email, phoNo};
+    }
+
+    @Test
+    void findsSubstringsInAnyFieldIncludingPhoneNumber() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(1, 10, fields("Ravi Kumar", "ravik", "ravi@example.com", "9876543210"), false, true);
+        index.upsert(2, 10, fields("Asha Rao", "asha", "asha@example.com", "9123456789"), false, true);
+
+        assertThat(index.search(null, "KUMAR", null, null, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(null, "543", null, null, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(null, "example", null, null, 0, 10).ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void candidatesWithAllTrigramsButNoSubstringAreDropped() {
+        TrigramIndex index = new TrigramIndex();
+        // Holds "abc" and "bcd" but not "abcd"
+        index.upsert(1, 10, fields("abc bcd", null, null, null), false, true);
+
+        assertThat(index.search(null, "abcd", null, null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenSubstringThenId() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(4, 10, fields("Mr Ravi", null, null, null), false, true);
+        index.upsert(3, 10, fields("Ravindra", null, null, null), false, true);
+        index.upsert(2, 10, fields("Big Ravi", null, null, null), false, true);
+        index.upsert(1, 10, fields("Ravi", null, null, null), false, true);
+
+        TrigramIndex.SearchResult result = index.search(null, "ravi", null, null, 0, 10);
+
+        assertThat(result.ids()).containsExactly(1L, 3L, 2L, 4L);
+        assertThat(result.total()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesThroughRankedResults() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.upsert(id, 10, fields("worker " + id, null, null, null), false, true);
+        }
+
+        TrigramIndex.SearchResult page = index.search(null, "worker", null, null, 2, 2);
+
+        assertThat(page.ids()).containsExactly(3L, 4L);
+        assertThat(page.total()).isEqualTo(5);
+        assertThat(index.search(null, "worker", null, null, 9, 2).ids()).isEmpty();
+    }
+
+    @Test
+    void partitionAndFlagsFilterResults() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(1, 10, fields("Ravi", null, null, null), false, true);
+        index.upsert(2, 20, fields("Ravi", null, null, null), false, true);
+        index.upsert(3, 10, fields("Ravi", null, null, null), true, true);
+        index.upsert(4, 10, fields("Ravi", null, null, null), false, false);
+
+        assertThat(index.search(10L, "ravi", null, null, 0, 10).ids()).containsExactly(1L, 3L, 4L);
+        assertThat(index.search(10L, "ravi", false, null, 0, 10).ids()).containsExactly(1L, 4L);
+        assertThat(index.search(10L, "ravi", false, true, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(30L, "ravi", null, null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void upsertReplacesOldTermsAndMovesPartitions() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(1, 10, fields("Ravi", null, null, null), false, true);
+
+        index.upsert(1, 20, fields("Asha", null, null, null), false, true);
+
+        assertThat(index.search(null, "ravi", null, null, 0, 10).total()).isZero();
+        assertThat(index.search(20L, "asha", null, null, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(10L, "asha", null, null, 0, 10).total()).isZero();
+        assertThat(index.partitionOf(1)).isEqualTo(20L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void flagOnlyUpdateIsVisibleToFilters() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(1, 10, fields("Ravi", null, null, null), false, true);
+
+        index.upsert(1, 10, fields("Ravi", null, null, null), true, true);
+
+        assertThat(index.search(null, "ravi", false, null, 0, 10).total()).isZero();
+        assertThat(index.search(null, "ravi", true, null, 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void removedDocumentsAreNotFound() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(1, 10, fields("Ravi", null, null, null), false, true);
+        index.upsert(2, 10, fields("Ravindra", null, null, null), false, true);
+
+        index.remove(1);
+
+        assertThat(index.search(null, "ravi", null, null, 0, 10).ids()).isEqualTo(List.of(2L));
+        assertThat(index.partitionOf(1)).isNull();
+    }
+
+    @Test
+    void shortQueriesAreNotSearchable() {
+        TrigramIndex index = new TrigramIndex();
+
+        assertThat(TrigramIndex.isSearchable("ra")).isFalse();
+        assertThat(TrigramIndex.isSearchable("  ra  ")).isFalse();
+        assertThat(TrigramIndex.isSearchable(null)).isFalse();
+        assertThat(TrigramIndex.isSearchable("rav")).isTrue();
+        assertThatThrownBy(() -> index.search(null, "ra", null, null, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
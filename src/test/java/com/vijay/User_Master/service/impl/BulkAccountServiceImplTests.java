@@ -0,0 +1,167 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.PrincipalType;
+import com.vijay.User_Master.dto.BulkActionRequest;
+import com.vijay.User_Master.dto.BulkActionResult;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.AccountStatusRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Bulk actions: request validation, caller exclusion, chunking and the user -> worker cascade.
+ */
+class BulkAccountServiceImplTests {
+
+    private static final long ADMIN_ID = 1L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WorkerRepository workerRepository = mock(WorkerRepository.class);
+    private final AccountStatusRepository accountStatusRepository = mock(AccountStatusRepository.class);
+    private final BulkAccountServiceImpl bulkAccountService = new BulkAccountServiceImpl(userRepository,
+            workerRepository, accountStatusRepository, mock(ApplicationEventPublisher.class),
+            mock(ListCountCache.class), mock(PlatformTransactionManager.class), 2, 3);
+
+    @BeforeEach
+    void logIn() {
+        CustomUserDetails admin = CustomUserDetails.fromClaims(ADMIN_ID, PrincipalType.USER, "admin",
+                "admin@example.com", List.of("ROLE_ADMIN"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @AfterEach
+    void logOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static BulkActionRequest ids(Long... ids) {
+        BulkActionRequest request = new BulkActionRequest();
+        request.setIds(List.of(ids));
+        return request;
+    }
+
+    private static BulkActionRequest filter(String keyword, Boolean isDeleted, Boolean isActive) {
+        BulkActionRequest request = new BulkActionRequest();
+        request.setFilter(new BulkActionRequest.Filter(keyword, isDeleted, isActive));
+        return request;
+    }
+
+    @Test
+    void rejectsEmptyUserFilterAndAmbiguousRequests() {
+        assertThatThrownBy(() -> bulkAccountService.softDeleteUsers(filter(" ", null, null)))
+                .isInstanceOf(BadApiRequestException.class);
+        assertThatThrownBy(() -> bulkAccountService.restoreUsers(new BulkActionRequest()))
+                .isInstanceOf(BadApiRequestException.class);
+        assertThatThrownBy(() -> bulkAccountService.updateUserStatus(ids(2L, 3L, 4L, 5L), false))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+
+    @Test
+    void workersOfAnotherSuperUserAreRejected() {
+        assertThatThrownBy(() -> bulkAccountService.softDeleteWorkers(99L, ids(5L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void userSelectionExcludesTheCaller() {
+        when(userRepository.findBulkIds(any(), any(), anyLong())).thenReturn(List.of(2L));
+        when(accountStatusRepository.updateUserStatuses(List.of(2L), false)).thenReturn(1);
+
+        BulkActionResult result = bulkAccountService.updateUserStatus(ids(ADMIN_ID, 2L), false);
+
+        verify(userRepository).findBulkIds(List.of(ADMIN_ID, 2L), null, ADMIN_ID);
+        assertThat(result.getMatched()).isEqualTo(1);
+        assertThat(result.getAffected()).isEqualTo(1);
+    }
+
+    @Test
+    void filterSelectionWalksChunksById() {
+        when(userRepository.findBulkIdsAfter(eq("test"), eq(null), eq(true), eq(ADMIN_ID), eq(0L), any()))
+                .thenReturn(List.of(2L, 3L));
+        when(userRepository.findBulkIdsAfter(eq("test"), eq(null), eq(true), eq(ADMIN_ID), eq(3L), any()))
+                .thenReturn(List.of(4L));
+        when(accountStatusRepository.updateUserStatuses(any(), eq(false))).thenReturn(2, 1);
+
+        BulkActionResult result = bulkAccountService.updateUserStatus(filter("test", null, true), false);
+
+        assertThat(result.getMatched()).isEqualTo(3);
+        assertThat(result.getAffected()).isEqualTo(3);
+    }
+
+    @Test
+    void softDeleteCascadesWithEachUsersStoredDeletedOn() {
+        LocalDateTime earlier = LocalDateTime.of(2026, 1, 5, 10, 0);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 9, 30);
+        // User 3 was deleted before and its cascade was cut short; the selection takes it too
+        when(userRepository.findBulkIds(List.of(2L, 3L), null, ADMIN_ID)).thenReturn(List.of(2L, 3L));
+        when(userRepository.softDeleteAllById(eq(List.of(2L, 3L)), any())).thenReturn(1);
+        when(userRepository.findDeletedOnByIds(List.of(2L, 3L))).thenReturn(List.of(now, earlier));
+        when(userRepository.findIdsDeletedOn(List.of(2L, 3L), now)).thenReturn(List.of(2L));
+        when(userRepository.findIdsDeletedOn(List.of(2L, 3L), earlier)).thenReturn(List.of(3L));
+        when(workerRepository.findCascadeIdsAfter(eq(List.of(2L)), eq(false), eq(0L), any())).thenReturn(List.of(20L));
+        when(workerRepository.findCascadeIdsAfter(eq(List.of(3L)), eq(false), eq(0L), any())).thenReturn(List.of(30L));
+
+        BulkActionResult result = bulkAccountService.softDeleteUsers(ids(2L, 3L));
+
+        verify(workerRepository).softDeleteAllById(eq(List.of(20L)), eq(now), any(), any());
+        verify(workerRepository).softDeleteAllById(eq(List.of(30L)), eq(earlier), any(), any());
+        verify(accountStatusRepository).updateWorkerStatuses(List.of(20L), false);
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getAffected()).isEqualTo(1);
+    }
+
+    @Test
+    void usersNoLongerDeletedDoNotCascade() {
+        when(userRepository.findBulkIds(List.of(2L), null, ADMIN_ID)).thenReturn(List.of(2L));
+        // Restored between the selection and the cascade
+        when(userRepository.findDeletedOnByIds(List.of(2L))).thenReturn(List.of());
+
+        bulkAccountService.softDeleteUsers(ids(2L));
+
+        verify(workerRepository, never()).findCascadeIdsAfter(any(), eq(false), anyLong(), any());
+    }
+
+    @Test
+    void restoreCascadesToWorkersBeforeTheUsers() {
+        when(userRepository.findBulkIds(List.of(2L), true, ADMIN_ID)).thenReturn(List.of(2L));
+        when(workerRepository.findCascadeIdsAfter(eq(List.of(2L)), eq(true), eq(0L), any())).thenReturn(List.of(20L));
+
+        bulkAccountService.restoreUsers(ids(2L));
+
+        InOrder order = inOrder(workerRepository, userRepository);
+        order.verify(workerRepository).restoreAllById(eq(List.of(20L)), any(), any());
+        order.verify(userRepository).restoreAllById(List.of(2L));
+    }
+
+    @Test
+    void restoreFilterWithIsDeletedFalseMatchesNothing() {
+        BulkActionResult result = bulkAccountService.restoreUsers(filter(null, false, null));
+
+        assertThat(result.getMatched()).isZero();
+        verify(userRepository, never()).findBulkIdsAfter(any(), any(), any(), anyLong(), anyLong(), any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.vijay.User_Master.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.dto.DataFormat;
+import com.vijay.User_Master.dto.UserListRow;
+import com.vijay.User_Master.exceptions.ServiceOverloadedException;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Export: CSV escaping and the concurrency permit held by the body.
+ */
+class ExportServiceImplTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ExportServiceImpl exportService = new ExportServiceImpl(userRepository, mock(WorkerRepository.class),
+            new ObjectMapper(), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 1);
+
+    private static UserListRow row(long id, String name) {
+        return new UserListRow(id, name, "user" + id, "user" + id + "@example.com", null, null, false, null, true,
+                "1:1:0:ROLE_ADMIN");
+    }
+
+    @Test
+    void writesEscapedCsvRows() throws Exception {
+        when(userRepository.streamListRows(any(), any(), any())).thenReturn(Stream.of(row(1, "Kumar, \"Ravi\"")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(null, null, null, DataFormat.CSV).writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,username,email,phoNo,isDeleted,deletedOn,isActive,roles\r\n"
+                        + "1,\"Kumar, \"\"Ravi\"\"\",user1,user1@example.com,,false,,true,ROLE_ADMIN\r\n");
+    }
+
+    @Test
+    void bodyThatNeverRunsHoldsNoPermit() throws Exception {
+        exportService.exportUsers(null, null, null, DataFormat.CSV); // never written, e.g. the client left
+
+        when(userRepository.streamListRows(any(), any(), any())).thenReturn(Stream.of(row(1, "Ravi")));
+        exportService.exportUsers(null, null, null, DataFormat.CSV).writeTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    void secondBodyIsRejectedWhileOneRunsAndPermitIsReturned() throws Exception {
+        StreamingResponseBody second = exportService.exportUsers(null, null, null, DataFormat.CSV);
+        when(userRepository.streamListRows(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    assertThatThrownBy(() -> second.writeTo(new ByteArrayOutputStream()))
+                            .isInstanceOf(ServiceOverloadedException.class);
+                    assertThatThrownBy(() -> exportService.exportUsers(null, null, null, DataFormat.CSV))
+                            .isInstanceOf(ServiceOverloadedException.class);
+                    return Stream.of(row(1, "Ravi"));
+                })
+                .thenAnswer(invocation -> Stream.of(row(2, "Asha")));
+
+        exportService.exportUsers(null, null, null, DataFormat.CSV).writeTo(new ByteArrayOutputStream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportUsers(null, null, null, DataFormat.NDJSON).writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"name\":\"Asha\"");
+    }
+}
@@ -0,0 +1,50 @@
+package com.vijay.User_Master.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  List count cache: shared totals per filter key, keyword encoding and prefix eviction.
+ */
+class ListCountCacheTests {
+
+    private final ListCountCache cache = new ListCountCache(new SimpleMeterRegistry(), 100, 30, 0, 600);
+
+    @Test
+    void sameKeyRunsTheCountOnce() {
+        AtomicInteger counts = new AtomicInteger();
+
+        cache.count("users|false|true|", () -> counts.incrementAndGet() * 10L);
+        ListCountCache.Count count = cache.count("users|false|true|", () -> counts.incrementAndGet() * 10L);
+
+        assertThat(count.total()).isEqualTo(10);
+        assertThat(count.approximate()).isFalse();
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void missingKeywordDoesNotCollideWithTheLiteralNull() {
+        assertThat(ListCountCache.keywordSegment(null)).isNotEqualTo(ListCountCache.keywordSegment("null"));
+        assertThat(ListCountCache.keywordSegment(null)).isNotEqualTo(ListCountCache.keywordSegment(""));
+
+        cache.count("users|null|null|" + ListCountCache.keywordSegment(null), () -> 50);
+        ListCountCache.Count literal = cache.count("users|null|null|" + ListCountCache.keywordSegment("null"), () -> 2);
+
+        assertThat(literal.total()).isEqualTo(2);
+    }
+
+    @Test
+    void evictPrefixDropsOnlyThatList() {
+        cache.count("users|false|true|", () -> 1);
+        cache.count("workers|7|false|true|", () -> 2);
+
+        cache.evictPrefix("users|");
+
+        assertThat(cache.count("users|false|true|", () -> 3).total()).isEqualTo(3);
+        assertThat(cache.count("workers|7|false|true|", () -> 4).total()).isEqualTo(2);
+    }
+}
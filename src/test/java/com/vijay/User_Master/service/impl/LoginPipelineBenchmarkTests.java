@@ -0,0 +1,92 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.config.QueryCountInspector;
+import com.vijay.User_Master.config.security.model.LoginRequest;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.service.AuthService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ *  Login benchmark: reports SQL statements and p99 latency per warm login and keeps
+ *  the statement count from creeping back up.
+ */
+@SpringBootTest
+class LoginPipelineBenchmarkTests {
+
+    private static final Logger log = LogManager.getLogger(LoginPipelineBenchmarkTests.class);
+
+    private static final int LOGINS = 50;
+    private static final String PASSWORD = "bench-password";
+    private static final String CLIENT_IP = "127.0.0.1";
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void createActiveUser() {
+        String username = "login-bench-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .name("Login Bench")
+                .username(username)
+                .email(username + "@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(new HashSet<>())
+                .accountStatus(AccountStatus.builder().isActive(true).build())
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        refreshTokenRepository.deleteByUserId(user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void warmLoginRunsAtMostTwoStatements() {
+        LoginRequest request = new LoginRequest(user.getUsername(), PASSWORD);
+        authService.login(request, CLIENT_IP); // cold login fills the principal cache
+
+        long[] statements = new long[LOGINS];
+        long[] nanos = new long[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            long start = System.nanoTime();
+            authService.login(request, CLIENT_IP);
+            nanos[i] = System.nanoTime() - start;
+            statements[i] = QueryCountInspector.count();
+        }
+
+        Arrays.sort(nanos);
+        long p99 = nanos[(int) Math.ceil(LOGINS * 0.99) - 1];
+        long maxStatements = Arrays.stream(statements).max().orElse(0);
+        log.info("login benchmark: {} logins, p99 {} ms, max statements {}",
+                LOGINS, String.format("%.2f", p99 / 1_000_000.0), maxStatements);
+
+        assertThat(maxStatements).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.config.QueryCountInspector;
+import com.vijay.User_Master.config.security.model.LoginJWTResponse;
+import com.vijay.User_Master.config.security.model.LoginRequest;
+import com.vijay.User_Master.dto.JwtResponse;
+import com.vijay.User_Master.dto.RefreshTokenRequest;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.service.AuthService;
+import com.vijay.User_Master.service.RefreshTokenService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ *  Token refresh: statement count of one rotation and single use of the presented token.
+ */
+@SpringBootTest
+class RefreshTokenRotationTests {
+
+    private static final Logger log = LogManager.getLogger(RefreshTokenRotationTests.class);
+
+    private static final String PASSWORD = "rotation-password";
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void createActiveUser() {
+        String username = "rotation-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .name("Rotation Test")
+                .username(username)
+                .email(username + "@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(new HashSet<>())
+                .accountStatus(AccountStatus.builder().isActive(true).build())
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        refreshTokenRepository.deleteByUserId(user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void rotationRunsOneFetchAndOneUpdate() {
+        LoginJWTResponse login = authService.login(new LoginRequest(user.getUsername(), PASSWORD), "127.0.0.1");
+        String presented = login.getRefreshTokenDto().getRefreshToken();
+
+        QueryCountInspector.reset();
+        JwtResponse refreshed = refreshTokenService.refreshAccessToken(new RefreshTokenRequest(presented));
+        long statements = QueryCountInspector.count();
+        log.info("token refresh: {} statements", statements);
+
+        assertThat(refreshed.getJwtToken()).isNotBlank();
+        assertThat(refreshed.getRefreshTokenDto().getRefreshToken()).isNotEqualTo(presented);
+        // select token + owner, conditional update
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void presentedTokenIsSingleUse() {
+        LoginJWTResponse login = authService.login(new LoginRequest(user.getUsername(), PASSWORD), "127.0.0.1");
+        RefreshTokenRequest request = new RefreshTokenRequest(login.getRefreshTokenDto().getRefreshToken());
+
+        refreshTokenService.refreshAccessToken(request);
+
+        assertThatThrownBy(() -> refreshTokenService.refreshAccessToken(request))
+                .isInstanceOf(TokenNotFoundException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.dto.RoleView;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.event.RoleChangedEvent;
+import com.vijay.User_Master.repository.RoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Role registry: lookups from the snapshot, reloads and the version guard.
+ */
+class RoleRegistryTests {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final RoleRegistry registry = new RoleRegistry(roleRepository, mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry());
+
+    private static final List<Role> ROLES = List.of(
+            new Role(1L, "ROLE_ADMIN", true, false),
+            new Role(2L, "ROLE_WORKER", true, false),
+            new Role(3L, "ROLE_OLD", false, false),
+            new Role(4L, "ROLE_GONE", true, true));
+
+    @Test
+    void firstLookupLoadsTheTableOnce() {
+        when(roleRepository.findAll(any(Sort.class))).thenReturn(ROLES);
+
+        assertThat(registry.findById(2L)).contains(new RoleView(2L, "ROLE_WORKER", true, false));
+        assertThat(registry.findAll()).extracting(RoleView::id).containsExactly(1L, 2L, 3L, 4L);
+        verify(roleRepository, times(1)).findAll(any(Sort.class));
+        assertThat(registry.version()).isEqualTo(1);
+    }
+
+    @Test
+    void namesCompareCaseInsensitivelyAndTrimmed() {
+        when(roleRepository.findAll(any(Sort.class))).thenReturn(ROLES);
+
+        assertThat(registry.findByName(" role_admin ")).map(RoleView::id).contains(1L);
+        assertThat(registry.findByName("ROLE_NONE")).isEmpty();
+        assertThat(registry.findByName(null)).isEmpty();
+    }
+
+    @Test
+    void activeRolesSkipInactiveAndDeleted() {
+        when(roleRepository.findAll(any(Sort.class))).thenReturn(ROLES);
+
+        assertThat(registry.findActive()).extracting(RoleView::name).containsExactly("ROLE_ADMIN", "ROLE_WORKER");
+        assertThat(registry.findActiveByIds(Set.of(2L, 3L, 4L))).extracting(RoleView::id).containsExactly(2L);
+    }
+
+    @Test
+    void roleChangeReloadsTheSnapshot() {
+        when(roleRepository.findAll(any(Sort.class)))
+                .thenReturn(ROLES)
+                .thenReturn(List.of(new Role(1L, "ROLE_ADMIN", false, false)));
+        registry.loadOnStartup();
+
+        registry.onRoleChanged(new RoleChangedEvent(1L));
+
+        assertThat(registry.findById(1L)).map(RoleView::active).contains(false);
+        assertThat(registry.findById(2L)).isEmpty();
+        assertThat(registry.version()).isEqualTo(2);
+    }
+
+    @Test
+    void slowReloadNeverReplacesANewerSnapshot() {
+        List<Role> newer = List.of(new Role(1L, "ROLE_ADMIN", true, false), new Role(5L, "ROLE_NEW", true, false));
+        when(roleRepository.findAll(any(Sort.class)))
+                .thenAnswer(invocation -> {
+                    // A change commits and its reload finishes while this one is still reading
+                    registry.refresh();
+                    return ROLES;
+                })
+                .thenReturn(newer);
+
+        registry.refresh();
+
+        assertThat(registry.version()).isEqualTo(2);
+        assertThat(registry.findById(5L)).isPresent();
+        assertThat(registry.findById(2L)).isEmpty();
+    }
+
+    @Test
+    void viewConvertsToADetachedEntity() {
+        Role role = new RoleView(2L, "ROLE_WORKER", true, false).toEntity();
+
+        assertThat(role.getId()).isEqualTo(2L);
+        assertThat(role.getName()).isEqualTo("ROLE_WORKER");
+    }
+}
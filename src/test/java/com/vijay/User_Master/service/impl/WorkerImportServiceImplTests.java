@@ -0,0 +1,191 @@
+package com.vijay.User_Master.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.config.security.BoundedPasswordEncoder;
+import com.vijay.User_Master.config.security.IdentityLookupIndex;
+import com.vijay.User_Master.dto.DataFormat;
+import com.vijay.User_Master.dto.RoleView;
+import com.vijay.User_Master.dto.UserResponse;
+import com.vijay.User_Master.dto.WorkerImportReport;
+import com.vijay.User_Master.entity.Worker;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.search.TakenIdentifierFilter;
+import com.vijay.User_Master.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ *  Worker import: CSV and NDJSON reading, validation, chunking and conflict handling.
+ */
+class WorkerImportServiceImplTests {
+
+    private static final String HEADER = "name,username,email,password,phoNo\n";
+
+    private final WorkerRepository workerRepository = mock(WorkerRepository.class);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private final UserService userService = mock(UserService.class);
+    private final BoundedPasswordEncoder passwordEncoder = mock(BoundedPasswordEncoder.class);
+    private final TakenIdentifierFilter takenIdentifiers = mock(TakenIdentifierFilter.class);
+    private final IdentityLookupIndex identityLookup = mock(IdentityLookupIndex.class);
+    private final WorkerImportServiceImpl importService = new WorkerImportServiceImpl(mock(UserRepository.class),
+            workerRepository, roleRegistry, userService, passwordEncoder, takenIdentifiers, identityLookup,
+            new ObjectMapper(), mock(ApplicationEventPublisher.class), mock(EntityManager.class),
+            mock(PlatformTransactionManager.class), 2, 5, 2);
+
+    // Workers passed to each saveAllAndFlush call
+    private final List<List<Worker>> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getCurrentUser()).thenReturn(UserResponse.builder().id(3L).build());
+        when(roleRegistry.findByName("ROLE_WORKER")).thenReturn(Optional.of(new RoleView(2L, "ROLE_WORKER", true, false)));
+        when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation -> {
+            List<?> raw = invocation.getArgument(0);
+            return raw.stream().map(password -> "hash:" + password).toList();
+        });
+        AtomicLong ids = new AtomicLong(100);
+        when(workerRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Worker> workers = invocation.getArgument(0);
+            workers.forEach(worker -> worker.setId(ids.incrementAndGet()));
+            saved.add(workers);
+            return workers;
+        });
+    }
+
+    private WorkerImportReport importCsv(String csv) {
+        return importService.importWorkers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFormat.CSV);
+    }
+
+    @Test
+    void importsCsvInChunksWithQuotedFields() {
+        WorkerImportReport report = importCsv("\uFEFF" + HEADER
+                + "\"Kumar, Ravi\",ravi,ravi@example.com,secret1,98765\n"
+                + "\n"
+                + "Asha,asha,asha@example.com,secret2,\n"
+                + "\"Meena \"\"M\"\"\nRao\",meena,meena@example.com,secret3,\n");
+
+        assertThat(report.getTotalRows()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        assertThat(saved).hasSize(2);
+        Worker ravi = saved.get(0).get(0);
+        assertThat(ravi.getName()).isEqualTo("Kumar, Ravi");
+        assertThat(ravi.getPassword()).isEqualTo("hash:secret1");
+        assertThat(ravi.getPhoNo()).isEqualTo("98765");
+        assertThat(saved.get(0).get(1).getPhoNo()).isNull();
+        assertThat(saved.get(1).get(0).getName()).isEqualTo("Meena \"M\"\nRao");
+    }
+
+    @Test
+    void rejectsInvalidRowsWithTheirLine() {
+        WorkerImportReport report = importCsv(HEADER
+                + "Ravi,ravi,ravi@example.com,,\n"
+                + "Asha,asha,not-an-email,secret,\n"
+                + "Meena,meena,meena@example.com,secret,\n"
+                + "Meena Two,MEENA,other@example.com,secret,\n"
+                + "Short,row\n");
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(4);
+        // Capped at max-errors
+        assertThat(report.getErrors()).extracting(WorkerImportReport.RowError::getLine).containsExactly(2L, 3L);
+        assertThat(report.getErrors()).extracting(WorkerImportReport.RowError::getMessage)
+                .containsExactly("username, email and password are required", "Invalid email");
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void csvHeaderMustNameTheRequiredColumns() {
+        assertThatThrownBy(() -> importCsv("name,username,email\nRavi,ravi,ravi@example.com\n"))
+                .isInstanceOf(BadApiRequestException.class);
+        assertThatThrownBy(() -> importCsv(""))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+
+    @Test
+    void takenIdentifiersAreConfirmedAndRejected() {
+        when(takenIdentifiers.mightBeTaken(any())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).startsWith("ravi") || "asha".equals(invocation.getArgument(0)));
+        when(identityLookup.isReady()).thenReturn(true);
+        when(identityLookup.takenAmong(any())).thenReturn(Set.of("ravi"));
+
+        WorkerImportReport report = importCsv(HEADER
+                + "Ravi,ravi,ravi@example.com,secret,\n"
+                + "Asha,asha,asha@example.com,secret,\n");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(WorkerImportReport.RowError::getUsername).containsExactly("ravi");
+        // ravi@example.com and asha were probable hits the lookup did not confirm
+        verify(takenIdentifiers, times(2)).recordFalsePositive();
+    }
+
+    @Test
+    void uniqueKeyConflictRetriesTheChunkRowByRow() {
+        when(workerRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> {
+                    List<Worker> workers = invocation.getArgument(0);
+                    workers.forEach(worker -> worker.setId(101L));
+                    return workers;
+                })
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        WorkerImportReport report = importCsv(HEADER
+                + "Ravi,ravi,ravi@example.com,secret,\n"
+                + "Asha,asha,asha@example.com,secret,\n");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(WorkerImportReport.RowError::getUsername).containsExactly("asha");
+    }
+
+    @Test
+    void rowLimitStopsTheUpload() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 7; i++) {
+            csv.append("W").append(i).append(",w").append(i).append(",w").append(i).append("@example.com,secret,\n");
+        }
+
+        WorkerImportReport report = importCsv(csv.toString());
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(5);
+        assertThat(report.getAbortedReason()).isEqualTo("Row limit of 5 reached at line 7");
+    }
+
+    @Test
+    void readsNdjsonAndReportsInvalidLines() {
+        String ndjson = "{\"name\":\"Ravi\",\"username\":\"ravi\",\"email\":\"ravi@example.com\",\"password\":\"secret\"}\n"
+                + "{not json}\n";
+
+        WorkerImportReport report = importService.importWorkers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), DataFormat.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(WorkerImportReport.RowError::getLine).containsExactly(2L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Invalid JSON");
+    }
+}